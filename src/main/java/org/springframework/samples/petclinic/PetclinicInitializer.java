@@ -20,6 +20,7 @@ import org.springframework.samples.petclinic.config.RootApplicationContextConfig
 import org.springframework.web.context.WebApplicationContext;
 import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
 import org.springframework.web.filter.CharacterEncodingFilter;
+import org.springframework.web.filter.DelegatingFilterProxy;
 import org.springframework.web.servlet.DispatcherServlet;
 import org.springframework.web.servlet.support.AbstractDispatcherServletInitializer;
 
@@ -33,7 +34,7 @@ import javax.servlet.ServletContext;
  * <p/>
  * Create the Spring "<strong>root</strong>" application context.<br/>
  * Register a {@link DispatcherServlet}  in the servlet context.<br/>
- * For both servlets, register a {@link CharacterEncodingFilter}.
+ * For both servlets, register a {@link CharacterEncodingFilter} and the request timing filter.
  * <p/>
  *
  * @author Antoine Rey
@@ -77,7 +78,9 @@ public class PetclinicInitializer extends AbstractDispatcherServletInitializer {
     protected Filter[] getServletFilters() {
         // Used to provide the ability to enter Chinese characters inside the Owner Form
         CharacterEncodingFilter characterEncodingFilter = new CharacterEncodingFilter("UTF-8", true);
-        return new Filter[]{characterEncodingFilter};
+        // Times every request, see RequestTimingFilter (a bean of the root application context, for JMX)
+        DelegatingFilterProxy requestTimingFilter = new DelegatingFilterProxy("requestTimingFilter");
+        return new Filter[]{requestTimingFilter, characterEncodingFilter};
     }
 
 }
@@ -30,11 +30,30 @@
  */
 package org.springframework.samples.petclinic.config;
 
+import javax.persistence.EntityManagerFactory;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Description;
 import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.ImportResource;
 import org.springframework.context.annotation.PropertySource;
+import org.springframework.core.env.Environment;
+import org.springframework.samples.petclinic.model.PetType;
+import org.springframework.samples.petclinic.model.Specialty;
+import org.springframework.samples.petclinic.repository.OwnerNameIndex;
+import org.springframework.samples.petclinic.repository.OwnerRepository;
+import org.springframework.samples.petclinic.repository.PetRepository;
+import org.springframework.samples.petclinic.repository.ReferenceDataRegistry;
+import org.springframework.samples.petclinic.repository.VetRegistry;
+import org.springframework.samples.petclinic.repository.VetRepository;
+import org.springframework.samples.petclinic.util.MonitoredThreadPoolTaskExecutor;
+import org.springframework.samples.petclinic.util.RequestTiming;
+import org.springframework.samples.petclinic.util.WriteMarker;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 @Configuration
@@ -45,6 +64,54 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
 @EnableTransactionManagement
 @Import({DataSourceConfig.class, InitDataSourceConfig.class, JdbcConfig.class, SharedJpaConfig.class, JpaConfig.class, SpringDataJpaConfig.class})
 public class BusinessConfig {
-		
+
+    @Autowired
+    private Environment env;
+
+    @Bean
+    public ReferenceDataRegistry referenceDataRegistry(PetRepository petRepository, VetRepository vetRepository,
+                                                       ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        ReferenceDataRegistry registry = new ReferenceDataRegistry(petRepository, vetRepository);
+        // jpa and spring-data-jpa profiles: a reload must not be served from the eternal second-level cache regions
+        entityManagerFactory.ifAvailable(emf -> registry.setEvictionCallback(() -> {
+            emf.getCache().evict(PetType.class);
+            emf.getCache().evict(Specialty.class);
+        }));
+        return registry;
+    }
+
+    @Bean
+    @Description("Snapshot of the vets, refreshed ahead of time on the vetRefreshScheduler")
+    public VetRegistry vetRegistry(VetRepository vetRepository) {
+        return new VetRegistry(vetRepository, vetRefreshScheduler(),
+            env.getProperty("vets.refreshIntervalMillis", Long.class));
+    }
+
+    @Bean
+    public ThreadPoolTaskScheduler vetRefreshScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setThreadNamePrefix("vet-refresh-");
+        return scheduler;
+    }
+
+    @Bean
+    @Description("In-memory prefix index of the owners' last names, loaded in the background on the clinicServiceExecutor")
+    public OwnerNameIndex ownerNameIndex(OwnerRepository ownerRepository) {
+        return new OwnerNameIndex(ownerRepository, clinicServiceExecutor());
+    }
+
+    @Bean
+    @Description("Bounded executor running the ClinicService calls of the AsyncClinicService")
+    public MonitoredThreadPoolTaskExecutor clinicServiceExecutor() {
+        MonitoredThreadPoolTaskExecutor executor = new MonitoredThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("clinic-service-");
+        executor.setCorePoolSize(env.getProperty("async.poolSize", Integer.class));
+        executor.setMaxPoolSize(env.getProperty("async.poolSize", Integer.class));
+        executor.setQueueCapacity(env.getProperty("async.queueCapacity", Integer.class));
+        // database time spent on the executor counts towards the timing of the request submitting the call,
+        // and reads on the executor follow the writes of the client (see ReadWriteRoutingDataSource)
+        executor.setTaskDecorator(task -> RequestTiming.propagate(WriteMarker.propagate(task)));
+        return executor;
+    }
 
 }
@@ -32,14 +32,21 @@ package org.springframework.samples.petclinic.config;
 
 import javax.sql.DataSource;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Description;
+import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.Profile;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 import org.springframework.jndi.JndiObjectFactoryBean;
+import org.springframework.samples.petclinic.util.InstrumentedDataSource;
+import org.springframework.samples.petclinic.util.ReadWriteRoutingDataSource;
+import org.springframework.samples.petclinic.util.SqlStatistics;
 
 @Configuration
 @PropertySource("classpath:spring/data-access.properties")
@@ -49,9 +56,36 @@ public class DataSourceConfig {
 	private Environment env;
 	
 	@Bean(name = "dataSource")
+	@Primary
+	@Description("DataSource used by the application: the primary pool, or a read/write split when the 'read-replica' profile is active")
+	@NotProfile("javaee")
+	public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+								 @Qualifier("replicaDataSource") ObjectProvider<DataSource> replicaDataSource,
+								 SqlStatistics sqlStatistics) {
+		DataSource primary = new InstrumentedDataSource(primaryDataSource, sqlStatistics);
+		DataSource replica = replicaDataSource.getIfAvailable();
+		if (replica == null) {
+			return new LazyConnectionDataSourceProxy(primary);
+		}
+		replica = new InstrumentedDataSource(replica, sqlStatistics);
+		ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(primary, replica,
+			env.getProperty("jdbc.replica.maxLagMillis", Long.class), env.getProperty("jdbc.replica.retryMillis", Long.class));
+		routingDataSource.afterPropertiesSet();
+		// the connection is fetched lazily so that the read-only flag of the transaction is known when routing
+		return new LazyConnectionDataSourceProxy(routingDataSource);
+	}
+
+	@Bean
+	@Description("Per-statement execution statistics and connection wait times of the application DataSource, exported over JMX")
+	@NotProfile("javaee")
+	public SqlStatistics sqlStatistics() {
+		return new SqlStatistics(env.getProperty("jdbc.slowQueryThresholdMillis", Long.class));
+	}
+
+	@Bean(name = "primaryDataSource")
 	@Description("DataSource configuration for the tomcat jdbc connection pool")
 	@NotProfile("javaee")
-	public DataSource dataSource() {
+	public DataSource primaryDataSource() {
 		// See here for more details on commons-dbcp versus tomcat-jdbc:
 		// http://blog.ippon.fr/2013/03/13/improving-the-performance-of-the-spring-petclinic-sample-application-part-3-of-5/-->
 		org.apache.tomcat.jdbc.pool.DataSource dataSource = new org.apache.tomcat.jdbc.pool.DataSource();
@@ -62,6 +96,18 @@ public class DataSourceConfig {
 		return dataSource;
 	}
 
+	@Bean(name = "replicaDataSource")
+	@Description("Tomcat jdbc connection pool for the read replica, used by read-only transactions")
+	@Profile("read-replica")
+	public DataSource replicaDataSource() {
+		org.apache.tomcat.jdbc.pool.DataSource dataSource = new org.apache.tomcat.jdbc.pool.DataSource();
+		dataSource.setDriverClassName(env.getProperty("jdbc.driverClassName"));
+		dataSource.setUrl(env.getProperty("jdbc.replica.url"));
+		dataSource.setUsername(env.getProperty("jdbc.replica.username"));
+		dataSource.setPassword(env.getProperty("jdbc.replica.password"));
+		return dataSource;
+	}
+
 	@Bean(name = "dataSource")
 	@Description("JNDI DataSource for JEE environments")
 	@Profile("javaee")
@@ -34,6 +34,7 @@ import javax.annotation.PostConstruct;
 import javax.sql.DataSource;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.env.Environment;
@@ -49,6 +50,10 @@ public class InitDataSourceConfig {
 	
 	@Autowired
 	private DataSource dataSource;
+
+	@Autowired(required = false)
+	@Qualifier("replicaDataSource")
+	private DataSource replicaDataSource;
 	
 	@PostConstruct
 	public void init() {
@@ -56,6 +61,10 @@ public class InitDataSourceConfig {
 		databasePopulator.addScript(new ClassPathResource(env.getProperty("jdbc.initLocation")));
 		databasePopulator.addScript(new ClassPathResource(env.getProperty("jdbc.dataLocation")));
 		DatabasePopulatorUtils.execute(databasePopulator, dataSource);
+		// a local replica (e.g. a second in-memory HSQLDB) starts empty and gets the same schema and data
+		if (replicaDataSource != null && env.getProperty("jdbc.replica.initialize", Boolean.class, false)) {
+			DatabasePopulatorUtils.execute(databasePopulator, replicaDataSource);
+		}
 	}
 
 }
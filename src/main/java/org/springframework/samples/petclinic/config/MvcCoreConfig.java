@@ -37,6 +37,9 @@ import org.springframework.format.FormatterRegistry;
 import org.springframework.http.MediaType;
 import org.springframework.samples.petclinic.service.ClinicService;
 import org.springframework.samples.petclinic.web.PetTypeFormatter;
+import org.springframework.samples.petclinic.web.ReadYourWritesInterceptor;
+import org.springframework.samples.petclinic.web.RequestTimingInterceptor;
+import org.springframework.samples.petclinic.web.ServiceUnavailableExceptionResolver;
 import org.springframework.web.servlet.HandlerExceptionResolver;
 import org.springframework.web.servlet.config.annotation.*;
 import org.springframework.web.servlet.handler.SimpleMappingExceptionResolver;
@@ -73,6 +76,20 @@ public class MvcCoreConfig implements WebMvcConfigurer {
 		configurer.mediaType("xml", MediaType.APPLICATION_XML);
 	}
 
+	@Override
+	public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+		// requests handled asynchronously (CompletableFuture return values) time out after 30 seconds
+		configurer.setDefaultTimeout(30000);
+	}
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		// splits the time measured by the requestTimingFilter into controller and render time
+		registry.addInterceptor(new RequestTimingInterceptor());
+		// carries the time of the client's last write, so its reads avoid a lagging read replica
+		registry.addInterceptor(new ReadYourWritesInterceptor());
+	}
+
 	@Override
 	public void configureDefaultServletHandling(
 			DefaultServletHandlerConfigurer configurer) {
@@ -127,6 +144,11 @@ public class MvcCoreConfig implements WebMvcConfigurer {
 	@Override
 	public void configureHandlerExceptionResolvers(
 			List<HandlerExceptionResolver> exceptionResolvers) {
+		// AsyncClinicService calls rejected by a saturated clinicServiceExecutor: 503, retry after 5 seconds,
+		// results into 'WEB-INF/jsp/busy.jsp'
+		ServiceUnavailableExceptionResolver serviceUnavailableResolver = new ServiceUnavailableExceptionResolver(5);
+		serviceUnavailableResolver.setWarnLogCategory("warn");
+		exceptionResolvers.add(serviceUnavailableResolver);
 		SimpleMappingExceptionResolver exceptionResolver = new SimpleMappingExceptionResolver();
 		// results into 'WEB-INF/jsp/exception.jsp'
 		exceptionResolver.setDefaultErrorView("exception");
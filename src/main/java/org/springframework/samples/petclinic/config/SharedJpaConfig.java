@@ -30,12 +30,19 @@
  */
 package org.springframework.samples.petclinic.config;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import javax.persistence.EntityManagerFactory;
+import javax.persistence.SharedCacheMode;
 import javax.sql.DataSource;
 
+import org.hibernate.cfg.AvailableSettings;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Description;
 import org.springframework.context.annotation.Profile;
 import org.springframework.core.env.Environment;
 import org.springframework.dao.annotation.PersistenceExceptionTranslationPostProcessor;
@@ -44,6 +51,7 @@ import org.springframework.orm.jpa.JpaVendorAdapter;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.orm.jpa.vendor.Database;
 import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.samples.petclinic.util.HibernateCacheStatistics;
 
 @Configuration
 @Profile({"jpa", "spring-data-jpa"})
@@ -56,6 +64,8 @@ public class SharedJpaConfig {
 	private DataSource dataSource;
 	
     @Bean
+    // the second-level cache shares the singleton Ehcache CacheManager created by ToolsConfig
+    @DependsOn("cacheManager")
     public EntityManagerFactory entityManagerFactory() {
         LocalContainerEntityManagerFactoryBean em = new LocalContainerEntityManagerFactoryBean();
         em.setDataSource(dataSource);
@@ -63,6 +73,20 @@ public class SharedJpaConfig {
         em.setPersistenceUnitName("petclinic");
         em.setPackagesToScan("org.springframework.samples.petclinic");
         em.setJpaVendorAdapter(jpaVendorAdaper());
+        // second-level cache for the entities annotated with @Cacheable (reference data), regions in cache/ehcache.xml
+        em.setSharedCacheMode(SharedCacheMode.ENABLE_SELECTIVE);
+        Map<String, Object> jpaProperties = new HashMap<>();
+        jpaProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+        jpaProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "org.hibernate.cache.ehcache.SingletonEhCacheRegionFactory");
+        jpaProperties.put("net.sf.ehcache.configurationResourceName", "/cache/ehcache.xml");
+        jpaProperties.put(AvailableSettings.GENERATE_STATISTICS, true);
+        // JDBC batching of inserts and updates, possible since ids come from a pooled sequence (see BaseEntity);
+        // ordering groups the statements per entity so that cascaded owner/pet/visit graphs still batch
+        jpaProperties.put(AvailableSettings.STATEMENT_BATCH_SIZE, env.getProperty("jdbc.batchSize", Integer.class));
+        jpaProperties.put(AvailableSettings.ORDER_INSERTS, true);
+        jpaProperties.put(AvailableSettings.ORDER_UPDATES, true);
+        jpaProperties.put(AvailableSettings.BATCH_VERSIONED_DATA, true);
+        em.setJpaPropertyMap(jpaProperties);
         em.afterPropertiesSet();
         return em.getObject();
     }
@@ -85,6 +109,12 @@ public class SharedJpaConfig {
         return jpaTransactionManager;
     }
     
+    @Bean
+    @Description("JMX view on the Hibernate second-level cache statistics")
+    public HibernateCacheStatistics hibernateCacheStatistics() {
+        return new HibernateCacheStatistics(entityManagerFactory());
+    }
+
     @Bean
     public PersistenceExceptionTranslationPostProcessor persistenceExceptionTranslationPostProcessor() {
     	return new PersistenceExceptionTranslationPostProcessor();
@@ -32,42 +32,126 @@ package org.springframework.samples.petclinic.config;
 
 import net.sf.ehcache.CacheManager;
 
+import java.util.Arrays;
+
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.cache.ehcache.EhCacheCacheManager;
 import org.springframework.cache.ehcache.EhCacheManagerFactoryBean;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Description;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
 import org.springframework.context.annotation.EnableMBeanExport;
+import org.springframework.core.env.Environment;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.jmx.export.MBeanExporter;
+import org.springframework.samples.petclinic.model.Owner;
+import org.springframework.samples.petclinic.service.ClinicService;
 import org.springframework.samples.petclinic.util.CallMonitoringAspect;
+import org.springframework.samples.petclinic.util.InstrumentedCacheManager;
+import org.springframework.samples.petclinic.util.QueryCountMonitor;
+import org.springframework.samples.petclinic.util.TwoTierCacheManager;
+import org.springframework.samples.petclinic.web.RequestTimingFilter;
 
 @Configuration
 @EnableCaching // enables scanning for @Cacheable annotation
 @EnableMBeanExport
 @EnableAspectJAutoProxy
 public class ToolsConfig {
+
+	// number of owners loaded by the JMX 'warm' operation of the owners cache
+	private static final int OWNERS_WARM_SIZE = 100;
+
+	@Autowired
+	private Environment env;
 	
 	@Bean
     @Description("Call monitoring aspect that monitors call count and call invocation time")
 	public CallMonitoringAspect callMonitor() {
 		return new CallMonitoringAspect();
 	}
+
+	@Bean
+	@Description("Filter sending database, controller and render times in a Server-Timing header and aggregating them per request pattern")
+	public RequestTimingFilter requestTimingFilter() {
+		RequestTimingFilter requestTimingFilter = new RequestTimingFilter();
+		requestTimingFilter.setResponseBufferSize(env.getProperty("http.timingBufferSize", Integer.class));
+		return requestTimingFilter;
+	}
+
+	@Bean
+	@Description("Aspect that counts the SQL statements of each ClinicService call and warns about repeated statements (N+1 selects)")
+	public QueryCountMonitor queryCountMonitor() {
+		return new QueryCountMonitor(env.getProperty("jdbc.repeatedStatementThreshold", Integer.class));
+	}
 	
+	/**
+	 * The cache manager behind @Cacheable, selected with the 'cache.provider' property:
+	 * 'ehcache' (regions of cache/ehcache.xml), 'caffeine' (in-heap Caffeine caches only) or
+	 * 'caffeine-ehcache' (Caffeine in front of the Ehcache regions).
+	 * The caches listed in 'cache.names' are instrumented and exposed through JMX as petclinic:type=Cache,name=...;
+	 * the Hibernate second-level cache regions, also defined in cache/ehcache.xml, are left to Hibernate
+	 */
 	@Bean
 	@Autowired
-	public EhCacheCacheManager ehCacheCacheManager(CacheManager cacheManager) {
+	public org.springframework.cache.CacheManager springCacheManager(CacheManager cacheManager, MBeanExporter mbeanExporter,
+			ObjectProvider<ClinicService> clinicService) {
+		String provider = env.getProperty("cache.provider", "ehcache");
+		org.springframework.cache.CacheManager springCacheManager;
+		switch (provider) {
+			case "ehcache":
+				springCacheManager = ehCacheCacheManager(cacheManager);
+				break;
+			case "caffeine":
+				springCacheManager = new TwoTierCacheManager(caffeineCacheManager(), null,
+					Arrays.asList(env.getProperty("cache.caffeine.copiedCaches", String[].class)));
+				break;
+			case "caffeine-ehcache":
+				springCacheManager = new TwoTierCacheManager(caffeineCacheManager(), ehCacheCacheManager(cacheManager),
+					Arrays.asList(env.getProperty("cache.caffeine.copiedCaches", String[].class)));
+				break;
+			default:
+				throw new IllegalStateException("Unknown cache.provider '" + provider
+					+ "', expected 'ehcache', 'caffeine' or 'caffeine-ehcache'");
+		}
+		InstrumentedCacheManager instrumentedCacheManager = new InstrumentedCacheManager(springCacheManager, mbeanExporter,
+			Arrays.asList(env.getProperty("cache.names", String[].class)));
+		// the service is looked up lazily: it is itself proxied with this cache manager; the owners are loaded with
+		// the visits of their pets, the same graph as findOwnerById caches
+		instrumentedCacheManager.setWarmer("owners", cache -> {
+			for (Owner owner : clinicService.getObject().findOwnerByLastName("", 0, OWNERS_WARM_SIZE)) {
+				cache.put(owner.getId(), owner);
+			}
+		});
+		// puts and evictions made within a transaction are applied after commit, so that a concurrent reader
+		// cannot cache the state preceding a write that is still in progress
+		return new TransactionAwareCacheManagerProxy(instrumentedCacheManager);
+	}
+
+	private EhCacheCacheManager ehCacheCacheManager(CacheManager cacheManager) {
 		EhCacheCacheManager ehCacheCacheManager = new EhCacheCacheManager();
 		ehCacheCacheManager.setCacheManager(cacheManager);
+		ehCacheCacheManager.afterPropertiesSet();
 		return ehCacheCacheManager;
 	}
 
+	private CaffeineCacheManager caffeineCacheManager() {
+		// size-bounded with W-TinyLFU admission, see https://github.com/ben-manes/caffeine/wiki/Efficiency
+		CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager();
+		caffeineCacheManager.setCacheSpecification(env.getProperty("cache.caffeine.spec"));
+		return caffeineCacheManager;
+	}
+
 	@Bean
 	public EhCacheManagerFactoryBean cacheManager() {
 		EhCacheManagerFactoryBean ehCacheManager = new EhCacheManagerFactoryBean();
 		ehCacheManager.setConfigLocation(new ClassPathResource("cache/ehcache.xml"));
+		// the singleton CacheManager is shared with the Hibernate second-level cache (see SharedJpaConfig)
+		ehCacheManager.setShared(true);
 		return ehCacheManager;
 	}
 }
@@ -24,6 +24,9 @@ import java.util.Set;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
+import javax.persistence.NamedSubgraph;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
 import javax.validation.constraints.Digits;
@@ -43,6 +46,9 @@ import org.springframework.core.style.ToStringCreator;
  */
 @Entity
 @Table(name = "owners")
+@NamedEntityGraph(name = "Owner.petsAndVisits",
+    attributeNodes = @NamedAttributeNode(value = "pets", subgraph = "pets"),
+    subgraphs = @NamedSubgraph(name = "pets", attributeNodes = {@NamedAttributeNode("type"), @NamedAttributeNode("visits")}))
 public class Owner extends Person {
     @Column(name = "address")
     @NotEmpty
@@ -22,9 +22,10 @@ import org.springframework.format.annotation.DateTimeFormat;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
-import javax.persistence.FetchType;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
 
@@ -44,6 +45,7 @@ import java.util.Set;
  */
 @Entity
 @Table(name = "pets")
+@NamedEntityGraph(name = "Pet.visits", attributeNodes = {@NamedAttributeNode("type"), @NamedAttributeNode("visits")})
 public class Pet extends NamedEntity {
 
     @Column(name = "birth_date")
@@ -58,7 +60,7 @@ public class Pet extends NamedEntity {
     @JoinColumn(name = "owner_id")
     private Owner owner;
 
-    @OneToMany(cascade = CascadeType.ALL, mappedBy = "pet", fetch = FetchType.EAGER)
+    @OneToMany(cascade = CascadeType.ALL, mappedBy = "pet")
     private Set<Visit> visits;
 
 
@@ -15,9 +15,13 @@
  */
 package org.springframework.samples.petclinic.model;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Entity;
 import javax.persistence.Table;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 /**
  * Models a {@link Vet Vet's} specialty (for example, dentistry).
  *
@@ -25,6 +29,8 @@ import javax.persistence.Table;
  */
 @Entity
 @Table(name = "specialties")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY)
 public class Specialty extends NamedEntity {
 
 }
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2002-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.samples.petclinic.model.Owner;
+import org.springframework.samples.petclinic.model.OwnerName;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * In-memory prefix index of the owners' last names, answering last-name autocompletion without a database round trip.
+ * Names are kept in a sorted concurrent map keyed by the lower-cased last name followed by the zero-padded id, so the
+ * owners matching a prefix are one contiguous range, in id order within a last name, and lookups never block.
+ * <p>
+ * The index is loaded in the background once the application context has started, paging through the owners with
+ * {@link OwnerRepository#findNamePage}; until then {@link #findByLastName} returns <code>null</code> and callers
+ * fall back to the repository. It is then maintained incrementally through {@link #ownerSaved(Owner)}, once the
+ * saving transaction has committed. Changes made directly in the database are only picked up by {@link #rebuild()},
+ * also exposed through JMX.
+ * <p>
+ * Matching is a plain case-insensitive prefix comparison: <code>LIKE</code> wildcards are taken literally and
+ * accent-insensitive database collations are not emulated, and rows written by another node are missing until the
+ * next rebuild. The index therefore only serves suggestions; owner searches always query the database.
+ */
+@ManagedResource("petclinic:type=OwnerNameIndex")
+public class OwnerNameIndex implements SmartInitializingSingleton {
+
+    private static final Logger LOG = LoggerFactory.getLogger(OwnerNameIndex.class);
+
+    /**
+     * Number of owners read per query while loading the index.
+     */
+    private static final int LOAD_PAGE_SIZE = 1000;
+
+    private final OwnerRepository ownerRepository;
+
+    private final Executor executor;
+
+    // sorted by normalized last name, then id: the names starting with a prefix form a contiguous range
+    private final ConcurrentNavigableMap<String, OwnerName> namesByKey = new ConcurrentSkipListMap<>();
+
+    // guarded by this; used to find the previous entry of an owner whose last name changed
+    private final Map<Integer, OwnerName> namesById = new HashMap<>();
+
+    private volatile boolean ready;
+
+    public OwnerNameIndex(OwnerRepository ownerRepository, Executor executor) {
+        this.ownerRepository = ownerRepository;
+        this.executor = executor;
+    }
+
+    /**
+     * Starts loading the index in the background, on the given executor.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        this.executor.execute(() -> {
+            try {
+                load();
+            } catch (DataAccessException ex) {
+                LOG.warn("Could not load the owner name index, owner searches will query the database", ex);
+            }
+        });
+    }
+
+    /**
+     * Retrieve the names of the owners whose last name <i>starts</i> with the given prefix, ignoring case.
+     *
+     * @param lastNamePrefix the prefix to search for
+     * @param maxResults     maximum number of names to return
+     * @return the matching names, ordered by last name, or <code>null</code> if the index has not been loaded yet
+     */
+    public List<OwnerName> findByLastName(String lastNamePrefix, int maxResults) {
+        if (!this.ready) {
+            return null;
+        }
+        String prefix = normalize(lastNamePrefix);
+        List<OwnerName> names = new ArrayList<>();
+        for (Map.Entry<String, OwnerName> entry : this.namesByKey.tailMap(prefix).entrySet()) {
+            if (names.size() == maxResults || !entry.getKey().startsWith(prefix)) {
+                break;
+            }
+            names.add(entry.getValue());
+        }
+        return names;
+    }
+
+    /**
+     * Record the (possibly new) name of a saved owner. Within a transaction the index is only updated after commit,
+     * so rolled back changes never show up.
+     */
+    public void ownerSaved(Owner owner) {
+        OwnerName name = new OwnerName(owner.getId(), owner.getFirstName(), owner.getLastName());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    put(name, true);
+                }
+            });
+        } else {
+            put(name, true);
+        }
+    }
+
+    /**
+     * Re-read all owner names from the database. Searches fall back to the repository while the index is rebuilt.
+     */
+    @ManagedOperation
+    public void rebuild() throws DataAccessException {
+        synchronized (this) {
+            this.ready = false;
+            this.namesByKey.clear();
+            this.namesById.clear();
+        }
+        load();
+    }
+
+    @ManagedAttribute
+    public boolean isReady() {
+        return this.ready;
+    }
+
+    @ManagedAttribute
+    public int getSize() {
+        return this.namesByKey.size();
+    }
+
+    private void load() {
+        long start = System.currentTimeMillis();
+        String anchorLastName = null;
+        Integer anchorId = null;
+        List<OwnerName> page;
+        do {
+            page = this.ownerRepository.findNamePage(anchorLastName, anchorId, LOAD_PAGE_SIZE);
+            for (OwnerName name : page) {
+                // owners saved since the load started are already up to date
+                put(name, false);
+            }
+            if (!page.isEmpty()) {
+                OwnerName last = page.get(page.size() - 1);
+                anchorLastName = last.getLastName();
+                anchorId = last.getId();
+            }
+        } while (page.size() == LOAD_PAGE_SIZE);
+        this.ready = true;
+        LOG.info("Loaded {} owner names in {} ms", this.namesByKey.size(), System.currentTimeMillis() - start);
+    }
+
+    private synchronized void put(OwnerName name, boolean replace) {
+        OwnerName previous = this.namesById.get(name.getId());
+        if (previous != null && !replace) {
+            return;
+        }
+        this.namesById.put(name.getId(), name);
+        // the new entry is added before the previous one is removed, so concurrent readers always find the owner
+        this.namesByKey.put(key(name), name);
+        if (previous != null && !key(previous).equals(key(name))) {
+            this.namesByKey.remove(key(previous));
+        }
+    }
+
+    private static String key(OwnerName name) {
+        // zero-padded to the 10 digits of a positive int, so ids compare as numbers (2 before 10)
+        return normalize(name.getLastName()) + '\0' + String.format(Locale.ROOT, "%010d", name.getId());
+    }
+
+    private static String normalize(String lastName) {
+        return lastName == null ? "" : lastName.toLowerCase(Locale.ROOT);
+    }
+
+}
@@ -16,10 +16,14 @@
 package org.springframework.samples.petclinic.repository;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
 
 import org.springframework.dao.DataAccessException;
 import org.springframework.samples.petclinic.model.BaseEntity;
 import org.springframework.samples.petclinic.model.Owner;
+import org.springframework.samples.petclinic.model.OwnerName;
+import org.springframework.samples.petclinic.model.OwnerSummary;
 
 /**
  * Repository class for <code>Owner</code> domain objects All method names are compliant with Spring Data naming
@@ -34,7 +38,7 @@ public interface OwnerRepository {
 
     /**
      * Retrieve <code>Owner</code>s from the data store by last name, returning all owners whose last name <i>starts</i>
-     * with the given name.
+     * with the given name, with their <code>Pet</code>s and the pets' <code>Visit</code>s.
      *
      * @param lastName Value to search for
      * @return a <code>Collection</code> of matching <code>Owner</code>s (or an empty <code>Collection</code> if none
@@ -42,6 +46,54 @@ public interface OwnerRepository {
      */
     Collection<Owner> findByLastName(String lastName) throws DataAccessException;
 
+    /**
+     * Retrieve one page of the <code>Owner</code>s whose last name <i>starts</i> with the given name, with their
+     * <code>Pet</code>s and the pets' <code>Visit</code>s, ordered by last name and id. The page is selected in the
+     * database on the owners alone before their pets are loaded, so only the owners of the page are ever read.
+     *
+     * @param lastName Value to search for
+     * @param offset   number of matching owners to skip
+     * @param limit    maximum number of owners to return
+     * @return the <code>Owner</code>s of the page in ascending <code>(last name, id)</code> order
+     */
+    List<Owner> findByLastName(String lastName, int offset, int limit) throws DataAccessException;
+
+    /**
+     * Retrieve one page of <code>OwnerSummary</code>s of the <code>Owner</code>s whose last name <i>starts</i> with the given name, ordered by last name
+     * and id. Pages are addressed by keyset: the <code>(last name, id)</code> of the owner the page starts after, or
+     * ends before when paging backward, so the cost of a page does not depend on how deep it is.
+     *
+     * @param lastName       Value to search for
+     * @param anchorLastName last name of the anchor owner (ignored when <code>anchorId</code> is <code>null</code>)
+     * @param anchorId       id of the anchor owner, or <code>null</code> for the first (or, backward, the last) page
+     * @param backward       <code>true</code> to read the page preceding the anchor instead of the one following it
+     * @param pageSize       maximum number of owners to return
+     * @return the <code>OwnerSummary</code>s of the page in ascending <code>(last name, id)</code> order
+     */
+    List<OwnerSummary> findPageByLastName(String lastName, String anchorLastName, Integer anchorId, boolean backward,
+                                          int pageSize) throws DataAccessException;
+
+    /**
+     * Retrieve one page of the <code>OwnerName</code>s of all <code>Owner</code>s, ordered by last name and id,
+     * reading nothing but their id and names. Pages are addressed by keyset, as in {@link #findPageByLastName}.
+     *
+     * @param anchorLastName last name of the owner the page starts after (ignored when <code>anchorId</code> is
+     *                       <code>null</code>)
+     * @param anchorId       id of the owner the page starts after, or <code>null</code> for the first page
+     * @param pageSize       maximum number of names to return
+     * @return the <code>OwnerName</code>s of the page in ascending <code>(last name, id)</code> order
+     */
+    List<OwnerName> findNamePage(String anchorLastName, Integer anchorId, int pageSize) throws DataAccessException;
+
+    /**
+     * Hand every <code>Owner</code> in the data store, with its <code>Pet</code>s and their <code>Visit</code>s, to
+     * the given callback, in id order. Owners are read incrementally from a single forward-only query, so memory use
+     * does not depend on the number of owners; the callback must not keep references to the owners it receives.
+     *
+     * @param action the callback invoked once per <code>Owner</code>
+     */
+    void forEachOwner(Consumer<Owner> action) throws DataAccessException;
+
     /**
      * Retrieve an <code>Owner</code> from the data store by id.
      *
@@ -51,6 +103,16 @@ public interface OwnerRepository {
      */
     Owner findById(int id) throws DataAccessException;
 
+    /**
+     * Retrieve an <code>Owner</code> from the data store by id, with its <code>Pet</code>s and their
+     * <code>Visit</code>s loaded, as displayed by the owner details page.
+     *
+     * @param id the id to search for
+     * @return the <code>Owner</code> if found
+     * @throws org.springframework.dao.DataRetrievalFailureException if not found
+     */
+    Owner findByIdWithVisits(int id) throws DataAccessException;
+
 
     /**
      * Save an <code>Owner</code> to the data store, either inserting or updating it.
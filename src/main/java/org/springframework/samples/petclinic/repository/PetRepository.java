@@ -49,6 +49,16 @@ public interface PetRepository {
      */
     Pet findById(int id) throws DataAccessException;
 
+    /**
+     * Retrieve a <code>Pet</code> from the data store by id, with its <code>PetType</code> and its
+     * <code>Owner</code> but without its <code>Visit</code>s, for pages that only need to name the pet.
+     *
+     * @param id the id to search for
+     * @return the <code>Pet</code> if found
+     * @throws org.springframework.dao.DataRetrievalFailureException if not found
+     */
+    Pet findByIdWithoutVisits(int id) throws DataAccessException;
+
     /**
      * Save a <code>Pet</code> to the data store, either inserting or updating it.
      *
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2002-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.samples.petclinic.model.NamedEntity;
+import org.springframework.samples.petclinic.model.PetType;
+import org.springframework.samples.petclinic.model.Specialty;
+
+/**
+ * In-memory registry of the reference data of the clinic: <code>PetType</code>s and <code>Specialty</code>s. Both
+ * tables are read once, on first use, through the {@link PetRepository} and {@link VetRepository} of the active
+ * profile, and are then served from an immutable snapshot with constant-time lookups by id and by name.
+ * <p>
+ * The registry does not notice changes made directly in the database; call {@link #reload()} (also exposed through
+ * JMX) after the reference tables have been modified. Any other copy of the reference data, such as the JPA
+ * second-level cache regions, is discarded through the {@link #setEvictionCallback eviction callback} first. The
+ * returned instances are shared and must not be modified.
+ */
+@ManagedResource("petclinic:type=ReferenceDataRegistry")
+public class ReferenceDataRegistry {
+
+    private final PetRepository petRepository;
+
+    private final VetRepository vetRepository;
+
+    private volatile Snapshot snapshot;
+
+    private Runnable evictionCallback = () -> {
+    };
+
+    public ReferenceDataRegistry(PetRepository petRepository, VetRepository vetRepository) {
+        this.petRepository = petRepository;
+        this.vetRepository = vetRepository;
+    }
+
+    /**
+     * Set the callback run by {@link #reload()} before the reference tables are re-read, evicting any cached copy
+     * of them. Does nothing by default.
+     */
+    public void setEvictionCallback(Runnable evictionCallback) {
+        this.evictionCallback = evictionCallback;
+    }
+
+    /**
+     * @return all <code>PetType</code>s, ordered by name
+     */
+    public List<PetType> getPetTypes() throws DataAccessException {
+        return snapshot().petTypes;
+    }
+
+    /**
+     * @return the <code>PetType</code> with the given id, or <code>null</code> if none exists
+     */
+    public PetType getPetType(int id) throws DataAccessException {
+        return snapshot().petTypesById.get(id);
+    }
+
+    /**
+     * @return the <code>PetType</code> with the given name, or <code>null</code> if none exists
+     */
+    public PetType getPetTypeByName(String name) throws DataAccessException {
+        return snapshot().petTypesByName.get(name);
+    }
+
+    /**
+     * @return all <code>Specialty</code>s, ordered by name
+     */
+    public List<Specialty> getSpecialties() throws DataAccessException {
+        return snapshot().specialties;
+    }
+
+    /**
+     * @return the <code>Specialty</code> with the given id, or <code>null</code> if none exists
+     */
+    public Specialty getSpecialty(int id) throws DataAccessException {
+        return snapshot().specialtiesById.get(id);
+    }
+
+    /**
+     * @return the <code>Specialty</code> with the given name, or <code>null</code> if none exists
+     */
+    public Specialty getSpecialtyByName(String name) throws DataAccessException {
+        return snapshot().specialtiesByName.get(name);
+    }
+
+    /**
+     * Re-read the reference tables. Readers keep using the previous snapshot until the new one is complete.
+     */
+    @ManagedOperation
+    public void reload() throws DataAccessException {
+        this.evictionCallback.run();
+        this.snapshot = load();
+    }
+
+    @ManagedAttribute
+    public int getPetTypeCount() {
+        Snapshot current = this.snapshot;
+        return current != null ? current.petTypes.size() : 0;
+    }
+
+    @ManagedAttribute
+    public int getSpecialtyCount() {
+        Snapshot current = this.snapshot;
+        return current != null ? current.specialties.size() : 0;
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = this.snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = this.snapshot;
+                if (current == null) {
+                    current = load();
+                    this.snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private Snapshot load() {
+        return new Snapshot(this.petRepository.findPetTypes(), this.vetRepository.findSpecialties());
+    }
+
+    private static <T extends NamedEntity> Map<Integer, T> indexById(Collection<T> entities) {
+        Map<Integer, T> index = new HashMap<>();
+        for (T entity : entities) {
+            index.put(entity.getId(), entity);
+        }
+        return Collections.unmodifiableMap(index);
+    }
+
+    private static <T extends NamedEntity> Map<String, T> indexByName(Collection<T> entities) {
+        Map<String, T> index = new HashMap<>();
+        for (T entity : entities) {
+            index.put(entity.getName(), entity);
+        }
+        return Collections.unmodifiableMap(index);
+    }
+
+    private static final class Snapshot {
+
+        private final List<PetType> petTypes;
+
+        private final Map<Integer, PetType> petTypesById;
+
+        private final Map<String, PetType> petTypesByName;
+
+        private final List<Specialty> specialties;
+
+        private final Map<Integer, Specialty> specialtiesById;
+
+        private final Map<String, Specialty> specialtiesByName;
+
+        private Snapshot(Collection<PetType> petTypes, Collection<Specialty> specialties) {
+            this.petTypes = Collections.unmodifiableList(new ArrayList<>(petTypes));
+            this.petTypesById = indexById(petTypes);
+            this.petTypesByName = indexByName(petTypes);
+            this.specialties = Collections.unmodifiableList(new ArrayList<>(specialties));
+            this.specialtiesById = indexById(specialties);
+            this.specialtiesByName = indexByName(specialties);
+        }
+    }
+
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2002-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.samples.petclinic.model.Vet;
+import org.springframework.scheduling.TaskScheduler;
+
+/**
+ * In-memory snapshot of all <code>Vet</code>s with their specialties, refreshed ahead of time in the background so
+ * that readers never wait for the database. The snapshot is immutable and replaced atomically once a refresh has
+ * completed; readers keep using the previous one in the meantime, and a failed refresh leaves it in place.
+ * <p>
+ * Besides the periodic refresh, code changing vet data should call {@link #invalidate()}, which schedules an
+ * immediate refresh; {@link #refresh()} reloads synchronously. Both are also exposed through JMX. The returned
+ * instances are shared and must not be modified.
+ */
+@ManagedResource("petclinic:type=VetRegistry")
+public class VetRegistry implements SmartInitializingSingleton {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VetRegistry.class);
+
+    private final VetRepository vetRepository;
+
+    private final TaskScheduler scheduler;
+
+    private final long refreshIntervalMillis;
+
+    private final AtomicLong refreshFailures = new AtomicLong();
+
+    private volatile List<Vet> vets;
+
+    private volatile long lastRefreshMillis;
+
+    public VetRegistry(VetRepository vetRepository, TaskScheduler scheduler, long refreshIntervalMillis) {
+        this.vetRepository = vetRepository;
+        this.scheduler = scheduler;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+    }
+
+    /**
+     * Loads the first snapshot right away, then refreshes it every <code>refreshIntervalMillis</code>.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        this.scheduler.scheduleWithFixedDelay(this::refreshInBackground, new Date(), this.refreshIntervalMillis);
+    }
+
+    /**
+     * @return all <code>Vet</code>s; loaded synchronously only if no snapshot has been loaded yet
+     */
+    public List<Vet> getVets() throws DataAccessException {
+        List<Vet> current = this.vets;
+        if (current == null) {
+            synchronized (this) {
+                current = this.vets;
+                if (current == null) {
+                    current = load();
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Signal that vet data has changed: the snapshot is refreshed in the background as soon as possible.
+     */
+    @ManagedOperation
+    public void invalidate() {
+        this.scheduler.schedule(this::refreshInBackground, new Date());
+    }
+
+    /**
+     * Re-read the vets. Readers keep using the previous snapshot until the new one is complete.
+     */
+    @ManagedOperation
+    public void refresh() throws DataAccessException {
+        load();
+    }
+
+    @ManagedAttribute
+    public int getVetCount() {
+        List<Vet> current = this.vets;
+        return current != null ? current.size() : 0;
+    }
+
+    @ManagedAttribute
+    public long getMillisSinceLastRefresh() {
+        return this.lastRefreshMillis > 0 ? System.currentTimeMillis() - this.lastRefreshMillis : -1;
+    }
+
+    @ManagedAttribute
+    public long getRefreshFailureCount() {
+        return this.refreshFailures.get();
+    }
+
+    private void refreshInBackground() {
+        try {
+            load();
+        } catch (DataAccessException ex) {
+            this.refreshFailures.incrementAndGet();
+            LOG.warn("Could not refresh the vets, keeping the previous snapshot", ex);
+        }
+    }
+
+    private List<Vet> load() {
+        List<Vet> loaded = Collections.unmodifiableList(new ArrayList<>(this.vetRepository.findAll()));
+        this.vets = loaded;
+        this.lastRefreshMillis = System.currentTimeMillis();
+        return loaded;
+    }
+
+}
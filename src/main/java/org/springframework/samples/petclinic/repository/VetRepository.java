@@ -18,6 +18,7 @@ package org.springframework.samples.petclinic.repository;
 import java.util.Collection;
 
 import org.springframework.dao.DataAccessException;
+import org.springframework.samples.petclinic.model.Specialty;
 import org.springframework.samples.petclinic.model.Vet;
 
 /**
@@ -38,5 +39,12 @@ public interface VetRepository {
      */
     Collection<Vet> findAll() throws DataAccessException;
 
+    /**
+     * Retrieve all <code>Specialty</code>s from the data store, ordered by name.
+     *
+     * @return a <code>Collection</code> of <code>Specialty</code>s
+     */
+    Collection<Specialty> findSpecialties() throws DataAccessException;
+
 
 }
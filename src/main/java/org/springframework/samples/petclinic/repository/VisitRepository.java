@@ -15,9 +15,12 @@
  */
 package org.springframework.samples.petclinic.repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.samples.petclinic.model.BaseEntity;
 import org.springframework.samples.petclinic.model.Visit;
 
@@ -40,6 +43,26 @@ public interface VisitRepository {
      */
     void save(Visit visit) throws DataAccessException;
 
+    /**
+     * Insert new <code>Visit</code>s into the data store, sending them in batches of the configured
+     * <code>jdbc.batchSize</code> rather than one statement per visit.
+     *
+     * @param visits the new <code>Visit</code>s to insert
+     * @return the generated ids, in the iteration order of <code>visits</code>
+     * @see BaseEntity#isNew
+     */
+    List<Integer> saveVisits(Collection<Visit> visits) throws DataAccessException;
+
     List<Visit> findByPetId(Integer petId);
 
+    /**
+     * Retrieve one slice of the <code>Visit</code>s of a <code>Pet</code>, most recent first. Only the rows of the
+     * slice (plus one, to tell whether another slice follows) are read, and no count query is issued.
+     *
+     * @param petId    the id of the <code>Pet</code>
+     * @param pageable the page number and size of the slice; its sort is ignored
+     * @return the <code>Visit</code>s of the slice, ordered by descending date and id
+     */
+    Slice<Visit> findByPetId(Integer petId, Pageable pageable) throws DataAccessException;
+
 }
@@ -15,27 +15,33 @@
  */
 package org.springframework.samples.petclinic.repository.jdbc;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import javax.sql.DataSource;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.EmptyResultDataAccessException;
-import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.namedparam.BeanPropertySqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
 import org.springframework.orm.ObjectRetrievalFailureException;
 import org.springframework.samples.petclinic.model.Owner;
+import org.springframework.samples.petclinic.model.OwnerName;
+import org.springframework.samples.petclinic.model.OwnerSummary;
 import org.springframework.samples.petclinic.model.Pet;
 import org.springframework.samples.petclinic.model.PetType;
 import org.springframework.samples.petclinic.model.Visit;
 import org.springframework.samples.petclinic.repository.OwnerRepository;
-import org.springframework.samples.petclinic.util.EntityUtils;
+import org.springframework.samples.petclinic.repository.ReferenceDataRegistry;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -52,12 +58,28 @@ import org.springframework.stereotype.Repository;
 @Repository
 public class JdbcOwnerRepositoryImpl implements OwnerRepository {
 
+    /**
+     * Maximum number of owner ids bound to a single <code>IN</code> clause when loading pets and visits.
+     */
+    private static final int OWNER_ID_BATCH_SIZE = 100;
+
+    private final JdbcOwnerRowMapper ownerRowMapper = new JdbcOwnerRowMapper();
+
+    private final JdbcPetVisitExtractor petVisitExtractor = new JdbcPetVisitExtractor();
+
+    private final JdbcOwnerSummaryExtractor ownerSummaryExtractor = new JdbcOwnerSummaryExtractor();
+
     private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
 
+    private JdbcTemplate streamingJdbcTemplate;
+
+    private ReferenceDataRegistry referenceData;
+
     private SimpleJdbcInsert insertOwner;
 
     @Autowired
-    public JdbcOwnerRepositoryImpl(DataSource dataSource) {
+    public JdbcOwnerRepositoryImpl(DataSource dataSource, ReferenceDataRegistry referenceData,
+                                   @Value("${jdbc.fetchSize}") int fetchSize) {
 
         this.insertOwner = new SimpleJdbcInsert(dataSource)
             .withTableName("owners")
@@ -65,6 +87,11 @@ public class JdbcOwnerRepositoryImpl implements OwnerRepository {
 
         this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
 
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(fetchSize);
+
+        this.referenceData = referenceData;
+
     }
 
 
@@ -80,12 +107,91 @@ public class JdbcOwnerRepositoryImpl implements OwnerRepository {
         List<Owner> owners = this.namedParameterJdbcTemplate.query(
             "SELECT id, first_name, last_name, address, city, telephone FROM owners WHERE last_name like :lastName",
             params,
-            BeanPropertyRowMapper.newInstance(Owner.class)
+            this.ownerRowMapper
+        );
+        loadOwnersPetsAndVisits(owners);
+        return owners;
+    }
+
+    /**
+     * Loads one page of {@link Owner Owners} by last name: the page is selected with <code>LIMIT</code>/<code>OFFSET</code>
+     * on the owners table, then the {@link Pet Pets} and {@link Visit Visits} of those owners only are loaded.
+     */
+    @Override
+    public List<Owner> findByLastName(String lastName, int offset, int limit) throws DataAccessException {
+        Map<String, Object> params = new HashMap<>();
+        params.put("lastName", lastName + "%");
+        params.put("offset", offset);
+        params.put("limit", limit);
+        List<Owner> owners = this.namedParameterJdbcTemplate.query(
+            "SELECT id, first_name, last_name, address, city, telephone FROM owners WHERE last_name like :lastName " +
+                "ORDER BY last_name, id LIMIT :limit OFFSET :offset",
+            params,
+            this.ownerRowMapper
         );
         loadOwnersPetsAndVisits(owners);
         return owners;
     }
 
+    /**
+     * Loads one keyset page of {@link OwnerSummary OwnerSummaries} with a single query: the owners of the page are
+     * selected by a <code>LIMIT</code>ed derived table, which is then joined to the pets for their names.
+     */
+    @Override
+    public List<OwnerSummary> findPageByLastName(String lastName, String anchorLastName, Integer anchorId,
+                                                 boolean backward, int pageSize) throws DataAccessException {
+        Map<String, Object> params = new HashMap<>();
+        params.put("lastName", lastName + "%");
+        params.put("pageSize", pageSize);
+        StringBuilder sql = new StringBuilder(
+            "SELECT o.id, o.first_name, o.last_name, o.address, o.city, o.telephone, pets.name FROM (" +
+                "SELECT id, first_name, last_name, address, city, telephone FROM owners WHERE last_name like :lastName");
+        if (anchorId != null) {
+            String operator = backward ? "<" : ">";
+            sql.append(" AND (last_name ").append(operator).append(" :anchorLastName")
+                .append(" OR (last_name = :anchorLastName AND id ").append(operator).append(" :anchorId))");
+            params.put("anchorLastName", anchorLastName);
+            params.put("anchorId", anchorId);
+        }
+        String direction = backward ? " DESC" : "";
+        sql.append(" ORDER BY last_name").append(direction).append(", id").append(direction).append(" LIMIT :pageSize")
+            .append(") o LEFT OUTER JOIN pets ON o.id = pets.owner_id ORDER BY o.last_name, o.id, pets.name");
+        return this.namedParameterJdbcTemplate.query(sql.toString(), params, this.ownerSummaryExtractor);
+    }
+
+    @Override
+    public List<OwnerName> findNamePage(String anchorLastName, Integer anchorId, int pageSize)
+        throws DataAccessException {
+        Map<String, Object> params = new HashMap<>();
+        params.put("pageSize", pageSize);
+        StringBuilder sql = new StringBuilder("SELECT id, first_name, last_name FROM owners");
+        if (anchorId != null) {
+            sql.append(" WHERE last_name > :anchorLastName OR (last_name = :anchorLastName AND id > :anchorId)");
+            params.put("anchorLastName", anchorLastName);
+            params.put("anchorId", anchorId);
+        }
+        sql.append(" ORDER BY last_name, id LIMIT :pageSize");
+        return this.namedParameterJdbcTemplate.query(sql.toString(), params,
+            (rs, rowNum) -> new OwnerName(rs.getInt(1), rs.getString(2), rs.getString(3)));
+    }
+
+    /**
+     * Streams all {@link Owner Owners} with a single owners/pets/visits join read through a forward-only result set
+     * with the configured fetch size. Rows are turned into owner graphs one owner at a time.
+     */
+    @Override
+    public void forEachOwner(Consumer<Owner> action) throws DataAccessException {
+        JdbcOwnerStreamingHandler handler = new JdbcOwnerStreamingHandler(this.referenceData, action);
+        this.streamingJdbcTemplate.query(
+            "SELECT owners.id, owners.first_name, owners.last_name, owners.address, owners.city, owners.telephone, " +
+                "pets.id, pets.name, pets.birth_date, pets.type_id, pets.owner_id, " +
+                "visits.id, visits.visit_date, visits.description " +
+                "FROM owners LEFT OUTER JOIN pets ON owners.id = pets.owner_id " +
+                "LEFT OUTER JOIN visits ON pets.id = visits.pet_id ORDER BY owners.id, pets.id",
+            handler);
+        handler.finish();
+    }
+
     /**
      * Loads the {@link Owner} with the supplied <code>id</code>; also loads the {@link Pet Pets} and {@link Visit Visits}
      * for the corresponding owner, if not already loaded.
@@ -99,7 +205,7 @@ public class JdbcOwnerRepositoryImpl implements OwnerRepository {
             owner = this.namedParameterJdbcTemplate.queryForObject(
                 "SELECT id, first_name, last_name, address, city, telephone FROM owners WHERE id= :id",
                 params,
-                BeanPropertyRowMapper.newInstance(Owner.class)
+                this.ownerRowMapper
             );
         } catch (EmptyResultDataAccessException ex) {
             throw new ObjectRetrievalFailureException(Owner.class, id);
@@ -108,19 +214,16 @@ public class JdbcOwnerRepositoryImpl implements OwnerRepository {
         return owner;
     }
 
+    /**
+     * Same as {@link #findById(int)}, which always loads the {@link Visit Visits}.
+     */
+    @Override
+    public Owner findByIdWithVisits(int id) throws DataAccessException {
+        return findById(id);
+    }
+
     public void loadPetsAndVisits(final Owner owner) {
-        Map<String, Object> params = new HashMap<>();
-        params.put("id", owner.getId());
-        final List<JdbcPet> pets = this.namedParameterJdbcTemplate.query(
-            "SELECT pets.id, name, birth_date, type_id, owner_id, visits.id as visit_id, visit_date, description, pet_id FROM pets LEFT OUTER JOIN visits ON pets.id = pet_id WHERE owner_id=:id ORDER BY pet_id",
-            params,
-            new JdbcPetVisitExtractor()
-        );
-        Collection<PetType> petTypes = getPetTypes();
-        for (JdbcPet pet : pets) {
-            pet.setType(EntityUtils.getById(petTypes, PetType.class, pet.getTypeId()));
-            owner.addPet(pet);
-        }
+        loadOwnersPetsAndVisits(Collections.singletonList(owner));
     }
 
     @Override
@@ -137,21 +240,42 @@ public class JdbcOwnerRepositoryImpl implements OwnerRepository {
         }
     }
 
-    public Collection<PetType> getPetTypes() throws DataAccessException {
-        return this.namedParameterJdbcTemplate.query(
-            "SELECT id, name FROM types ORDER BY name", new HashMap<String, Object>(),
-            BeanPropertyRowMapper.newInstance(PetType.class));
-    }
-
     /**
      * Loads the {@link Pet} and {@link Visit} data for the supplied {@link List} of {@link Owner Owners}.
+     * <p>
+     * Pets and visits are fetched with one statement per {@link #OWNER_ID_BATCH_SIZE} owners (using an
+     * <code>owner_id IN (...)</code> clause) and the pet types are resolved through the {@link ReferenceDataRegistry},
+     * so the number of round trips does not grow with the number of owners.
      *
      * @param owners the list of owners for whom the pet and visit data should be loaded
      * @see #loadPetsAndVisits(Owner)
      */
     private void loadOwnersPetsAndVisits(List<Owner> owners) {
+        if (owners.isEmpty()) {
+            return;
+        }
+        Map<Integer, Owner> ownersById = new HashMap<>();
         for (Owner owner : owners) {
-            loadPetsAndVisits(owner);
+            ownersById.put(owner.getId(), owner);
+        }
+        List<Integer> ownerIds = new ArrayList<>(ownersById.keySet());
+        for (int from = 0; from < ownerIds.size(); from += OWNER_ID_BATCH_SIZE) {
+            List<Integer> batch = ownerIds.subList(from, Math.min(from + OWNER_ID_BATCH_SIZE, ownerIds.size()));
+            Map<String, Object> params = new HashMap<>();
+            params.put("ids", batch);
+            List<JdbcPet> pets = this.namedParameterJdbcTemplate.query(
+                "SELECT pets.id, name, birth_date, type_id, owner_id, visits.id as visit_id, visit_date, description, pet_id FROM pets LEFT OUTER JOIN visits ON pets.id = pet_id WHERE owner_id IN (:ids) ORDER BY pets.id",
+                params,
+                this.petVisitExtractor
+            );
+            for (JdbcPet pet : pets) {
+                PetType petType = this.referenceData.getPetType(pet.getTypeId());
+                if (petType == null) {
+                    throw new ObjectRetrievalFailureException(PetType.class, pet.getTypeId());
+                }
+                pet.setType(petType);
+                ownersById.get(pet.getOwnerId()).addPet(pet);
+            }
         }
     }
 
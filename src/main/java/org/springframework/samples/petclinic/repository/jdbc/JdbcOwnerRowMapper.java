@@ -0,0 +1,54 @@
+/*
+ * Copyright 2002-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.repository.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.samples.petclinic.model.Owner;
+
+/**
+ * {@link RowMapper} implementation mapping data from a {@link ResultSet} to the corresponding properties
+ * of the {@link Owner} class.
+ * <p>
+ * Columns are read by position, starting at the configured first column, in the order
+ * <code>id, first_name, last_name, address, city, telephone</code>. Instances are stateless and can be shared.
+ */
+class JdbcOwnerRowMapper implements RowMapper<Owner> {
+
+    private final int firstColumn;
+
+    JdbcOwnerRowMapper() {
+        this(1);
+    }
+
+    JdbcOwnerRowMapper(int firstColumn) {
+        this.firstColumn = firstColumn;
+    }
+
+    @Override
+    public Owner mapRow(ResultSet rs, int rownum) throws SQLException {
+        Owner owner = new Owner();
+        owner.setId(rs.getInt(this.firstColumn));
+        owner.setFirstName(rs.getString(this.firstColumn + 1));
+        owner.setLastName(rs.getString(this.firstColumn + 2));
+        owner.setAddress(rs.getString(this.firstColumn + 3));
+        owner.setCity(rs.getString(this.firstColumn + 4));
+        owner.setTelephone(rs.getString(this.firstColumn + 5));
+        return owner;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2002-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.repository.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.function.Consumer;
+
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.orm.ObjectRetrievalFailureException;
+import org.springframework.samples.petclinic.model.Owner;
+import org.springframework.samples.petclinic.model.PetType;
+import org.springframework.samples.petclinic.repository.ReferenceDataRegistry;
+
+/**
+ * {@link RowCallbackHandler} assembling {@link Owner Owners} with their pets and visits from a result set ordered by
+ * owner id and pet id, and handing each owner to a callback as soon as its last row has been read. Only one owner
+ * graph is held in memory at a time.
+ * <p>
+ * Columns are read by position: the owner columns as expected by {@link JdbcOwnerRowMapper} (1-6), the pet columns
+ * as expected by {@link JdbcPetRowMapper} (7-11) and the visit columns as expected by {@link JdbcVisitRowMapper}
+ * (12-14). Call {@link #finish()} once the result set is exhausted to hand over the last owner.
+ */
+class JdbcOwnerStreamingHandler implements RowCallbackHandler {
+
+    private static final int PET_FIRST_COLUMN = 7;
+
+    private static final int VISIT_FIRST_COLUMN = 12;
+
+    private final JdbcOwnerRowMapper ownerRowMapper = new JdbcOwnerRowMapper();
+
+    private final JdbcPetRowMapper petRowMapper = new JdbcPetRowMapper(PET_FIRST_COLUMN);
+
+    private final JdbcVisitRowMapper visitRowMapper = new JdbcVisitRowMapper(VISIT_FIRST_COLUMN);
+
+    private final ReferenceDataRegistry referenceData;
+
+    private final Consumer<Owner> action;
+
+    private Owner owner;
+
+    private JdbcPet pet;
+
+    JdbcOwnerStreamingHandler(ReferenceDataRegistry referenceData, Consumer<Owner> action) {
+        this.referenceData = referenceData;
+        this.action = action;
+    }
+
+    @Override
+    public void processRow(ResultSet rs) throws SQLException {
+        int ownerId = rs.getInt(1);
+        if (this.owner == null || this.owner.getId() != ownerId) {
+            finish();
+            this.owner = this.ownerRowMapper.mapRow(rs, 0);
+        }
+        int petId = rs.getInt(PET_FIRST_COLUMN);
+        if (rs.wasNull()) {
+            return;
+        }
+        if (this.pet == null || this.pet.getId() != petId) {
+            this.pet = this.petRowMapper.mapRow(rs, 0);
+            PetType petType = this.referenceData.getPetType(this.pet.getTypeId());
+            if (petType == null) {
+                throw new ObjectRetrievalFailureException(PetType.class, this.pet.getTypeId());
+            }
+            this.pet.setType(petType);
+            this.owner.addPet(this.pet);
+        }
+        if (rs.getObject(VISIT_FIRST_COLUMN) != null) {
+            this.pet.addVisit(this.visitRowMapper.mapRow(rs, 0));
+        }
+    }
+
+    /**
+     * Hands the owner being assembled, if any, to the callback.
+     */
+    void finish() {
+        if (this.owner != null) {
+            this.action.accept(this.owner);
+            this.owner = null;
+            this.pet = null;
+        }
+    }
+}
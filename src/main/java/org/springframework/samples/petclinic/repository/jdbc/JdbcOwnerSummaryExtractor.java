@@ -0,0 +1,55 @@
+/*
+ * Copyright 2002-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.repository.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.samples.petclinic.model.OwnerSummary;
+
+/**
+ * {@link ResultSetExtractor} building {@link OwnerSummary OwnerSummaries} from a result set holding one row per pet
+ * (or a single row for an owner without pets), grouped by owner.
+ * <p>
+ * Columns are read by position: <code>id, first_name, last_name, address, city, telephone</code> of the owner (1-6)
+ * and the pet name (7), <code>null</code> for an owner without pets. Instances are stateless and can be shared.
+ */
+class JdbcOwnerSummaryExtractor implements ResultSetExtractor<List<OwnerSummary>> {
+
+    private static final int PET_NAME_COLUMN = 7;
+
+    @Override
+    public List<OwnerSummary> extractData(ResultSet rs) throws SQLException {
+        List<OwnerSummary> summaries = new ArrayList<>();
+        OwnerSummary summary = null;
+        while (rs.next()) {
+            int ownerId = rs.getInt(1);
+            if (summary == null || summary.getId() != ownerId) {
+                summary = new OwnerSummary(ownerId, rs.getString(2), rs.getString(3), rs.getString(4),
+                    rs.getString(5), rs.getString(6));
+                summaries.add(summary);
+            }
+            String petName = rs.getString(PET_NAME_COLUMN);
+            if (petName != null) {
+                summary.addPetName(petName);
+            }
+        }
+        return summaries;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2002-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.repository.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.samples.petclinic.model.Owner;
+import org.springframework.samples.petclinic.model.PetType;
+
+/**
+ * {@link ResultSetExtractor} implementation building a single {@link JdbcPet} together with its visits, its
+ * {@link PetType} and a lightweight {@link Owner} (owner columns only, without the owner's other pets) from one
+ * <code>pets JOIN types JOIN owners LEFT OUTER JOIN visits</code> result set.
+ * <p>
+ * Columns are read by position: the pet and visit columns as expected by {@link JdbcPetVisitExtractor} (1-9), the
+ * type name (10) and the owner columns as expected by {@link JdbcOwnerRowMapper} (11-16). Instances are stateless
+ * and can be shared.
+ */
+class JdbcPetDetailsExtractor implements ResultSetExtractor<JdbcPet> {
+
+    private static final int VISIT_FIRST_COLUMN = 6;
+
+    private static final int TYPE_NAME_COLUMN = 10;
+
+    private static final int OWNER_FIRST_COLUMN = 11;
+
+    private final JdbcPetRowMapper petRowMapper = new JdbcPetRowMapper();
+
+    private final JdbcVisitRowMapper visitRowMapper = new JdbcVisitRowMapper(VISIT_FIRST_COLUMN);
+
+    private final JdbcOwnerRowMapper ownerRowMapper = new JdbcOwnerRowMapper(OWNER_FIRST_COLUMN);
+
+    /**
+     * @return the pet, or <code>null</code> if the result set is empty
+     */
+    @Override
+    public JdbcPet extractData(ResultSet rs) throws SQLException {
+        JdbcPet pet = null;
+        int row = 0;
+        while (rs.next()) {
+            if (pet == null) {
+                pet = this.petRowMapper.mapRow(rs, row);
+                PetType type = new PetType();
+                type.setId(pet.getTypeId());
+                type.setName(rs.getString(TYPE_NAME_COLUMN));
+                pet.setType(type);
+                Owner owner = this.ownerRowMapper.mapRow(rs, row);
+                owner.addPet(pet);
+            }
+            rs.getInt(VISIT_FIRST_COLUMN);
+            if (!rs.wasNull()) {
+                pet.addVisit(this.visitRowMapper.mapRow(rs, row));
+            }
+            row++;
+        }
+        return pet;
+    }
+}
@@ -23,19 +23,14 @@ import javax.sql.DataSource;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
-import org.springframework.dao.EmptyResultDataAccessException;
-import org.springframework.jdbc.core.BeanPropertyRowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
 import org.springframework.orm.ObjectRetrievalFailureException;
-import org.springframework.samples.petclinic.model.Owner;
 import org.springframework.samples.petclinic.model.Pet;
 import org.springframework.samples.petclinic.model.PetType;
-import org.springframework.samples.petclinic.repository.OwnerRepository;
 import org.springframework.samples.petclinic.repository.PetRepository;
 import org.springframework.samples.petclinic.repository.VisitRepository;
-import org.springframework.samples.petclinic.util.EntityUtils;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -49,24 +44,29 @@ import org.springframework.stereotype.Repository;
 @Repository
 public class JdbcPetRepositoryImpl implements PetRepository {
 
+    private final JdbcPetTypeRowMapper petTypeRowMapper = new JdbcPetTypeRowMapper();
+
+    private final JdbcPetDetailsExtractor petDetailsExtractor = new JdbcPetDetailsExtractor();
+
+    private final JdbcPetRowMapper petRowMapper = new JdbcPetRowMapper();
+
+    private final JdbcOwnerRowMapper ownerRowMapper = new JdbcOwnerRowMapper(7);
+
     private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
 
     private SimpleJdbcInsert insertPet;
 
-    private OwnerRepository ownerRepository;
-
     private VisitRepository visitRepository;
 
 
     @Autowired
-    public JdbcPetRepositoryImpl(DataSource dataSource, OwnerRepository ownerRepository, VisitRepository visitRepository) {
+    public JdbcPetRepositoryImpl(DataSource dataSource, VisitRepository visitRepository) {
         this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
 
         this.insertPet = new SimpleJdbcInsert(dataSource)
             .withTableName("pets")
             .usingGeneratedKeyColumns("id");
 
-        this.ownerRepository = ownerRepository;
         this.visitRepository = visitRepository;
     }
 
@@ -76,21 +76,58 @@ public class JdbcPetRepositoryImpl implements PetRepository {
         return this.namedParameterJdbcTemplate.query(
             "SELECT id, name FROM types ORDER BY name",
             params,
-            BeanPropertyRowMapper.newInstance(PetType.class));
+            this.petTypeRowMapper);
     }
 
+    /**
+     * Loads the {@link Pet} with the supplied <code>id</code> together with its visits, its type and a lightweight
+     * owner (which only references this pet) in a single statement, whatever the number of pets of the owner.
+     */
     @Override
     public Pet findById(int id) throws DataAccessException {
-        Integer ownerId;
-        try {
-            Map<String, Object> params = new HashMap<>();
-            params.put("id", id);
-            ownerId = this.namedParameterJdbcTemplate.queryForObject("SELECT owner_id FROM pets WHERE id=:id", params, Integer.class);
-        } catch (EmptyResultDataAccessException ex) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("id", id);
+        JdbcPet pet = this.namedParameterJdbcTemplate.query(
+            "SELECT pets.id, pets.name, pets.birth_date, pets.type_id, pets.owner_id, " +
+                "visits.id, visits.visit_date, visits.description, visits.pet_id, types.name, " +
+                "owners.id, owners.first_name, owners.last_name, owners.address, owners.city, owners.telephone " +
+                "FROM pets JOIN types ON pets.type_id = types.id JOIN owners ON pets.owner_id = owners.id " +
+                "LEFT OUTER JOIN visits ON pets.id = visits.pet_id WHERE pets.id = :id",
+            params,
+            this.petDetailsExtractor);
+        if (pet == null) {
+            throw new ObjectRetrievalFailureException(Pet.class, id);
+        }
+        return pet;
+    }
+
+    /**
+     * Loads the {@link Pet} with the supplied <code>id</code> together with its type and a lightweight owner, in a
+     * single statement that does not read the visits.
+     */
+    @Override
+    public Pet findByIdWithoutVisits(int id) throws DataAccessException {
+        Map<String, Object> params = new HashMap<>();
+        params.put("id", id);
+        List<JdbcPet> pets = this.namedParameterJdbcTemplate.query(
+            "SELECT pets.id, pets.name, pets.birth_date, pets.type_id, pets.owner_id, types.name, " +
+                "owners.id, owners.first_name, owners.last_name, owners.address, owners.city, owners.telephone " +
+                "FROM pets JOIN types ON pets.type_id = types.id JOIN owners ON pets.owner_id = owners.id " +
+                "WHERE pets.id = :id",
+            params,
+            (rs, rowNum) -> {
+                JdbcPet pet = this.petRowMapper.mapRow(rs, rowNum);
+                PetType type = new PetType();
+                type.setId(pet.getTypeId());
+                type.setName(rs.getString(6));
+                pet.setType(type);
+                this.ownerRowMapper.mapRow(rs, rowNum).addPet(pet);
+                return pet;
+            });
+        if (pets.isEmpty()) {
             throw new ObjectRetrievalFailureException(Pet.class, id);
         }
-        Owner owner = this.ownerRepository.findById(ownerId);
-        return EntityUtils.getById(owner.getPets(), Pet.class, id);
+        return pets.get(0);
     }
 
     @Override
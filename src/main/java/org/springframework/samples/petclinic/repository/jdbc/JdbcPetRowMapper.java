@@ -18,24 +18,36 @@ package org.springframework.samples.petclinic.repository.jdbc;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDate;
-import java.util.Date;
 
 import org.springframework.jdbc.core.RowMapper;
 
 /**
  * {@link RowMapper} implementation mapping data from a {@link ResultSet} to the corresponding properties
  * of the {@link JdbcPet} class.
+ * <p>
+ * Columns are read by position, starting at the configured first column, in the order
+ * <code>id, name, birth_date, type_id, owner_id</code>. Instances are stateless and can be shared.
  */
 class JdbcPetRowMapper implements RowMapper<JdbcPet> {
 
+    private final int firstColumn;
+
+    JdbcPetRowMapper() {
+        this(1);
+    }
+
+    JdbcPetRowMapper(int firstColumn) {
+        this.firstColumn = firstColumn;
+    }
+
     @Override
     public JdbcPet mapRow(ResultSet rs, int rownum) throws SQLException {
         JdbcPet pet = new JdbcPet();
-        pet.setId(rs.getInt("pets.id"));
-        pet.setName(rs.getString("name"));
-        pet.setBirthDate(rs.getObject("birth_date", LocalDate.class));
-        pet.setTypeId(rs.getInt("type_id"));
-        pet.setOwnerId(rs.getInt("owner_id"));
+        pet.setId(rs.getInt(this.firstColumn));
+        pet.setName(rs.getString(this.firstColumn + 1));
+        pet.setBirthDate(rs.getObject(this.firstColumn + 2, LocalDate.class));
+        pet.setTypeId(rs.getInt(this.firstColumn + 3));
+        pet.setOwnerId(rs.getInt(this.firstColumn + 4));
         return pet;
     }
 }
@@ -25,26 +25,33 @@ import java.sql.SQLException;
 /**
  * {@link ResultSetExtractor} implementation by using the
  * {@link OneToManyResultSetExtractor} of Spring Data Core JDBC Extensions.
+ * <p>
+ * Columns are read by position: the pet columns as expected by {@link JdbcPetRowMapper} (1-5), the visit columns
+ * as expected by {@link JdbcVisitRowMapper} (6-8) and the visit's <code>pet_id</code> (9). Instances are stateless
+ * and can be shared.
  */
 public class JdbcPetVisitExtractor extends
     OneToManyResultSetExtractor<JdbcPet, Visit, Integer> {
 
+    private static final int PET_ID_COLUMN = 1;
+
+    private static final int VISIT_FIRST_COLUMN = 6;
+
+    private static final int VISIT_PET_ID_COLUMN = 9;
+
     public JdbcPetVisitExtractor() {
-        super(new JdbcPetRowMapper(), new JdbcVisitRowMapper());
+        super(new JdbcPetRowMapper(PET_ID_COLUMN), new JdbcVisitRowMapper(VISIT_FIRST_COLUMN));
     }
 
     @Override
     protected Integer mapPrimaryKey(ResultSet rs) throws SQLException {
-        return rs.getInt("pets.id");
+        return rs.getInt(PET_ID_COLUMN);
     }
 
     @Override
     protected Integer mapForeignKey(ResultSet rs) throws SQLException {
-        if (rs.getObject("visits.pet_id") == null) {
-            return null;
-        } else {
-            return rs.getInt("visits.pet_id");
-        }
+        int petId = rs.getInt(VISIT_PET_ID_COLUMN);
+        return rs.wasNull() ? null : petId;
     }
 
     @Override
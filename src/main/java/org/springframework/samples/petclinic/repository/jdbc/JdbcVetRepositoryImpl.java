@@ -15,20 +15,14 @@
  */
 package org.springframework.samples.petclinic.repository.jdbc;
 
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
-import org.springframework.jdbc.core.BeanPropertyRowMapper;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.samples.petclinic.model.Specialty;
 import org.springframework.samples.petclinic.model.Vet;
 import org.springframework.samples.petclinic.repository.VetRepository;
-import org.springframework.samples.petclinic.util.EntityUtils;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -45,6 +39,10 @@ import org.springframework.stereotype.Repository;
 @Repository
 public class JdbcVetRepositoryImpl implements VetRepository {
 
+    private final JdbcVetSpecialtyExtractor vetSpecialtyExtractor = new JdbcVetSpecialtyExtractor();
+
+    private final JdbcSpecialtyRowMapper specialtyRowMapper = new JdbcSpecialtyRowMapper();
+
     private JdbcTemplate jdbcTemplate;
 
     @Autowired
@@ -54,36 +52,22 @@ public class JdbcVetRepositoryImpl implements VetRepository {
 
     /**
      * Refresh the cache of Vets that the ClinicService is holding.
+     * <p>
+     * Vets and their specialties are read with a single join query, so the cost of a refresh does not grow with
+     * the number of vets.
      */
     @Override
     public Collection<Vet> findAll() throws DataAccessException {
-        List<Vet> vets = new ArrayList<>();
-        // Retrieve the list of all vets.
-        vets.addAll(this.jdbcTemplate.query(
-            "SELECT id, first_name, last_name FROM vets ORDER BY last_name,first_name",
-            BeanPropertyRowMapper.newInstance(Vet.class)));
-
-        // Retrieve the list of all possible specialties.
-        final List<Specialty> specialties = this.jdbcTemplate.query(
-            "SELECT id, name FROM specialties",
-            BeanPropertyRowMapper.newInstance(Specialty.class));
+        return this.jdbcTemplate.query(
+            "SELECT vets.id, first_name, last_name, vet_specialties.vet_id, specialties.id AS specialty_id, specialties.name AS specialty_name " +
+                "FROM vets LEFT OUTER JOIN vet_specialties ON vets.id = vet_specialties.vet_id " +
+                "LEFT OUTER JOIN specialties ON vet_specialties.specialty_id = specialties.id " +
+                "ORDER BY last_name, first_name, vets.id",
+            this.vetSpecialtyExtractor);
+    }
 
-        // Build each vet's list of specialties.
-        for (Vet vet : vets) {
-            final List<Integer> vetSpecialtiesIds = this.jdbcTemplate.query(
-                "SELECT specialty_id FROM vet_specialties WHERE vet_id=?",
-                new BeanPropertyRowMapper<Integer>() {
-                    @Override
-                    public Integer mapRow(ResultSet rs, int row) throws SQLException {
-                        return rs.getInt(1);
-                    }
-                },
-                vet.getId());
-            for (int specialtyId : vetSpecialtiesIds) {
-                Specialty specialty = EntityUtils.getById(specialties, Specialty.class, specialtyId);
-                vet.addSpecialty(specialty);
-            }
-        }
-        return vets;
+    @Override
+    public Collection<Specialty> findSpecialties() throws DataAccessException {
+        return this.jdbcTemplate.query("SELECT id, name FROM specialties ORDER BY name", this.specialtyRowMapper);
     }
 }
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2002-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.repository.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.samples.petclinic.model.Vet;
+
+/**
+ * {@link RowMapper} implementation mapping data from a {@link ResultSet} to the corresponding properties
+ * of the {@link Vet} class.
+ * <p>
+ * Columns are read by position, in the order <code>id, first_name, last_name</code>. Instances are stateless and
+ * can be shared.
+ */
+class JdbcVetRowMapper implements RowMapper<Vet> {
+
+    @Override
+    public Vet mapRow(ResultSet rs, int rownum) throws SQLException {
+        Vet vet = new Vet();
+        vet.setId(rs.getInt(1));
+        vet.setFirstName(rs.getString(2));
+        vet.setLastName(rs.getString(3));
+        return vet;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2002-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.repository.jdbc;
+
+import org.springframework.data.jdbc.core.OneToManyResultSetExtractor;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.samples.petclinic.model.Specialty;
+import org.springframework.samples.petclinic.model.Vet;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * {@link ResultSetExtractor} implementation building the whole {@link Vet} to {@link Specialty} graph from a single
+ * <code>vets LEFT OUTER JOIN vet_specialties LEFT OUTER JOIN specialties</code> result set, by using the
+ * {@link OneToManyResultSetExtractor} of Spring Data Core JDBC Extensions.
+ * <p>
+ * Rows must be grouped by vet, i.e. the query has to be ordered so that all rows of a vet are adjacent. Columns are
+ * read by position: the vet columns as expected by {@link JdbcVetRowMapper} (1-3), the <code>vet_id</code> of the
+ * join table (4) and the specialty columns as expected by {@link JdbcSpecialtyRowMapper} (5-6). Instances are
+ * stateless and can be shared.
+ */
+class JdbcVetSpecialtyExtractor extends
+    OneToManyResultSetExtractor<Vet, Specialty, Integer> {
+
+    private static final int VET_ID_COLUMN = 1;
+
+    private static final int SPECIALTY_VET_ID_COLUMN = 4;
+
+    private static final int SPECIALTY_FIRST_COLUMN = 5;
+
+    JdbcVetSpecialtyExtractor() {
+        super(new JdbcVetRowMapper(), new JdbcSpecialtyRowMapper(SPECIALTY_FIRST_COLUMN));
+    }
+
+    @Override
+    protected Integer mapPrimaryKey(ResultSet rs) throws SQLException {
+        return rs.getInt(VET_ID_COLUMN);
+    }
+
+    @Override
+    protected Integer mapForeignKey(ResultSet rs) throws SQLException {
+        int vetId = rs.getInt(SPECIALTY_VET_ID_COLUMN);
+        return rs.wasNull() ? null : vetId;
+    }
+
+    @Override
+    protected void addChild(Vet root, Specialty child) {
+        root.addSpecialty(child);
+    }
+}
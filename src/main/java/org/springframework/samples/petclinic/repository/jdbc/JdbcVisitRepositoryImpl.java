@@ -16,7 +16,13 @@
 package org.springframework.samples.petclinic.repository.jdbc;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
@@ -26,6 +32,11 @@ import org.springframework.stereotype.Repository;
 
 import javax.sql.DataSource;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -44,17 +55,25 @@ import java.util.Map;
 @Repository
 public class JdbcVisitRepositoryImpl implements VisitRepository {
 
+    private final JdbcPetRowMapper petRowMapper = new JdbcPetRowMapper();
+
+    private final JdbcVisitRowMapper visitRowMapper = new JdbcVisitRowMapper();
+
     private NamedParameterJdbcTemplate jdbcTemplate;
 
     private SimpleJdbcInsert insertVisit;
 
+    private int batchSize;
+
     @Autowired
-    public JdbcVisitRepositoryImpl(DataSource dataSource) {
+    public JdbcVisitRepositoryImpl(DataSource dataSource, @Value("${jdbc.batchSize}") int batchSize) {
         this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
 
         this.insertVisit = new SimpleJdbcInsert(dataSource)
             .withTableName("visits")
             .usingGeneratedKeyColumns("id");
+
+        this.batchSize = batchSize;
     }
 
 
@@ -70,6 +89,56 @@ public class JdbcVisitRepositoryImpl implements VisitRepository {
     }
 
 
+    /**
+     * Inserts the visits with JDBC batch updates on a single prepared statement, executing the batch every
+     * <code>batchSize</code> rows and collecting the generated keys after each execution.
+     */
+    @Override
+    public List<Integer> saveVisits(Collection<Visit> visits) throws DataAccessException {
+        return this.jdbcTemplate.getJdbcOperations().execute((ConnectionCallback<List<Integer>>) con -> {
+            List<Integer> ids = new ArrayList<>(visits.size());
+            try (PreparedStatement ps = con.prepareStatement(
+                "INSERT INTO visits (pet_id, visit_date, description) VALUES (?, ?, ?)", new String[]{"id"})) {
+                List<Visit> pending = new ArrayList<>(this.batchSize);
+                for (Visit visit : visits) {
+                    if (!visit.isNew()) {
+                        throw new UnsupportedOperationException("Visit update not supported");
+                    }
+                    ps.setInt(1, visit.getPet().getId());
+                    ps.setObject(2, visit.getDate());
+                    ps.setString(3, visit.getDescription());
+                    ps.addBatch();
+                    pending.add(visit);
+                    if (pending.size() == this.batchSize) {
+                        executeBatch(ps, pending, ids);
+                    }
+                }
+                if (!pending.isEmpty()) {
+                    executeBatch(ps, pending, ids);
+                }
+            }
+            return ids;
+        });
+    }
+
+    /**
+     * Executes the pending batch and assigns the generated keys to the pending visits, in order.
+     */
+    private void executeBatch(PreparedStatement ps, List<Visit> pending, List<Integer> ids) throws SQLException {
+        ps.executeBatch();
+        try (ResultSet keys = ps.getGeneratedKeys()) {
+            for (Visit visit : pending) {
+                if (!keys.next()) {
+                    throw new DataRetrievalFailureException(
+                        "The JDBC driver returned fewer generated keys than inserted visits");
+                }
+                visit.setId(keys.getInt(1));
+                ids.add(visit.getId());
+            }
+        }
+        pending.clear();
+    }
+
     /**
      * Creates a {@link MapSqlParameterSource} based on data values from the supplied {@link Visit} instance.
      */
@@ -88,11 +157,11 @@ public class JdbcVisitRepositoryImpl implements VisitRepository {
         JdbcPet pet = this.jdbcTemplate.queryForObject(
                 "SELECT id, name, birth_date, type_id, owner_id FROM pets WHERE id=:id",
                 params,
-                new JdbcPetRowMapper());
+                this.petRowMapper);
 
         List<Visit> visits = this.jdbcTemplate.query(
             "SELECT id as visit_id, visit_date, description FROM visits WHERE pet_id=:id",
-            params, new JdbcVisitRowMapper());
+            params, this.visitRowMapper);
 
         for (Visit visit: visits) {
             visit.setPet(pet);
@@ -101,4 +170,32 @@ public class JdbcVisitRepositoryImpl implements VisitRepository {
         return visits;
     }
 
+    @Override
+    public Slice<Visit> findByPetId(Integer petId, Pageable pageable) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("id", petId);
+        JdbcPet pet = this.jdbcTemplate.queryForObject(
+                "SELECT id, name, birth_date, type_id, owner_id FROM pets WHERE id=:id",
+                params,
+                this.petRowMapper);
+
+        // one extra row tells whether another slice follows
+        params.put("limit", pageable.getPageSize() + 1);
+        params.put("offset", pageable.getOffset());
+        List<Visit> visits = this.jdbcTemplate.query(
+            "SELECT id as visit_id, visit_date, description FROM visits WHERE pet_id=:id " +
+                "ORDER BY visit_date DESC, id DESC LIMIT :limit OFFSET :offset",
+            params, this.visitRowMapper);
+
+        boolean hasNext = visits.size() > pageable.getPageSize();
+        if (hasNext) {
+            visits = visits.subList(0, pageable.getPageSize());
+        }
+        for (Visit visit: visits) {
+            visit.setPet(pet);
+        }
+
+        return new SliceImpl<>(visits, pageable, hasNext);
+    }
+
 }
@@ -22,20 +22,32 @@ import org.springframework.samples.petclinic.model.Visit;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDate;
-import java.util.Date;
 
 /**
  * {@link RowMapper} implementation mapping data from a {@link ResultSet} to the corresponding properties
  * of the {@link Visit} class.
+ * <p>
+ * Columns are read by position, starting at the configured first column, in the order
+ * <code>visit_id, visit_date, description</code>. Instances are stateless and can be shared.
  */
 class JdbcVisitRowMapper implements RowMapper<Visit> {
 
+    private final int firstColumn;
+
+    JdbcVisitRowMapper() {
+        this(1);
+    }
+
+    JdbcVisitRowMapper(int firstColumn) {
+        this.firstColumn = firstColumn;
+    }
+
     @Override
     public Visit mapRow(ResultSet rs, int row) throws SQLException {
         Visit visit = new Visit();
-        visit.setId(rs.getInt("visit_id"));
-        visit.setDate(rs.getObject("visit_date", LocalDate.class));
-        visit.setDescription(rs.getString("description"));
+        visit.setId(rs.getInt(this.firstColumn));
+        visit.setDate(rs.getObject(this.firstColumn + 1, LocalDate.class));
+        visit.setDescription(rs.getString(this.firstColumn + 2));
         return visit;
     }
 }
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2002-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.repository.jpa;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import javax.persistence.TypedQuery;
+
+import org.hibernate.jpa.QueryHints;
+import org.springframework.samples.petclinic.model.Owner;
+import org.springframework.samples.petclinic.model.OwnerName;
+import org.springframework.samples.petclinic.model.OwnerSummary;
+
+/**
+ * Owner queries shared by the JPA and the Spring Data JPA implementations of the <code>OwnerRepository</code>.
+ * <p>
+ * Owner searches run in two phases: the matching owner ids are selected first, ordered and paged in SQL, then the
+ * owners are loaded with their pets and visits for those ids only, by {@link #findOwnersWithPetsAndVisits}.
+ * Fetch-joining the pets in the search itself would prevent paging in the database (Hibernate would apply the limit
+ * in memory) and de-duplicate the whole joined result set in the JVM.
+ */
+public abstract class JpaOwnerQueries {
+
+    /**
+     * Maximum number of owner ids bound to a single <code>IN</code> clause when loading owners with their pets.
+     */
+    private static final int OWNER_ID_BATCH_SIZE = 100;
+
+    /**
+     * Load the owners with the given ids, their pets and the visits of the pets, {@value #OWNER_ID_BATCH_SIZE} owners
+     * per query. The graph is the one <code>findByIdWithVisits</code> loads, complete enough to be cached or rendered
+     * once detached.
+     *
+     * @return the owners, in the order of the ids
+     */
+    public static List<Owner> findOwnersWithPetsAndVisits(EntityManager em, List<Integer> ownerIds) {
+        Map<Integer, Owner> ownersById = new HashMap<>();
+        for (int from = 0; from < ownerIds.size(); from += OWNER_ID_BATCH_SIZE) {
+            List<Integer> batch = ownerIds.subList(from, Math.min(from + OWNER_ID_BATCH_SIZE, ownerIds.size()));
+            // the entity graph outer-joins the pets, their types and their visits to the owners;
+            // DISTINCT only de-duplicates the owners in memory, it is not needed in the SQL
+            List<Owner> owners = em.createQuery(
+                "SELECT DISTINCT owner FROM Owner owner WHERE owner.id IN :ids", Owner.class)
+                .setParameter("ids", batch)
+                .setHint(QueryHints.HINT_LOADGRAPH, em.getEntityGraph("Owner.petsAndVisits"))
+                .setHint(QueryHints.HINT_PASS_DISTINCT_THROUGH, false)
+                .getResultList();
+            for (Owner owner : owners) {
+                ownersById.put(owner.getId(), owner);
+            }
+        }
+        List<Owner> owners = new ArrayList<>(ownerIds.size());
+        for (Integer ownerId : ownerIds) {
+            owners.add(ownersById.get(ownerId));
+        }
+        return owners;
+    }
+
+    /**
+     * Load one keyset page of {@link OwnerSummary OwnerSummaries} with a single native query: the owners of the page
+     * are selected by a <code>LIMIT</code>ed derived table, which is then joined to the pets for their names. JPQL can
+     * limit neither a subquery nor the owners of a join, and no entity is needed for the search results.
+     *
+     * @see org.springframework.samples.petclinic.repository.OwnerRepository#findPageByLastName
+     */
+    @SuppressWarnings("unchecked")
+    public static List<OwnerSummary> findPageByLastName(EntityManager em, String lastName, String anchorLastName, Integer anchorId,
+                                                 boolean backward, int pageSize) {
+        StringBuilder sql = new StringBuilder(
+            "SELECT o.id, o.first_name, o.last_name, o.address, o.city, o.telephone, pets.name FROM (" +
+                "SELECT id, first_name, last_name, address, city, telephone FROM owners WHERE last_name LIKE :lastName");
+        if (anchorId != null) {
+            String operator = backward ? "<" : ">";
+            sql.append(" AND (last_name ").append(operator).append(" :anchorLastName")
+                .append(" OR (last_name = :anchorLastName AND id ").append(operator).append(" :anchorId))");
+        }
+        String direction = backward ? " DESC" : "";
+        sql.append(" ORDER BY last_name").append(direction).append(", id").append(direction).append(" LIMIT :pageSize")
+            .append(") o LEFT OUTER JOIN pets ON o.id = pets.owner_id ORDER BY o.last_name, o.id, pets.name");
+        Query query = em.createNativeQuery(sql.toString());
+        query.setParameter("lastName", lastName + "%");
+        query.setParameter("pageSize", pageSize);
+        if (anchorId != null) {
+            query.setParameter("anchorLastName", anchorLastName);
+            query.setParameter("anchorId", anchorId);
+        }
+        List<OwnerSummary> summaries = new ArrayList<>();
+        OwnerSummary summary = null;
+        for (Object[] row : (List<Object[]>) query.getResultList()) {
+            int ownerId = ((Number) row[0]).intValue();
+            if (summary == null || summary.getId() != ownerId) {
+                summary = new OwnerSummary(ownerId, (String) row[1], (String) row[2], (String) row[3],
+                    (String) row[4], (String) row[5]);
+                summaries.add(summary);
+            }
+            if (row[6] != null) {
+                summary.addPetName((String) row[6]);
+            }
+        }
+        return summaries;
+    }
+
+    /**
+     * Load one keyset page of {@link OwnerName OwnerNames}, selecting the id and names of the owners only.
+     *
+     * @see org.springframework.samples.petclinic.repository.OwnerRepository#findNamePage
+     */
+    public static List<OwnerName> findNamePage(EntityManager em, String anchorLastName, Integer anchorId,
+                                               int pageSize) {
+        StringBuilder jpql = new StringBuilder("SELECT NEW org.springframework.samples.petclinic.model.OwnerName(" +
+            "owner.id, owner.firstName, owner.lastName) FROM Owner owner");
+        if (anchorId != null) {
+            jpql.append(" WHERE owner.lastName > :anchorLastName" +
+                " OR (owner.lastName = :anchorLastName AND owner.id > :anchorId)");
+        }
+        jpql.append(" ORDER BY owner.lastName, owner.id");
+        TypedQuery<OwnerName> query = em.createQuery(jpql.toString(), OwnerName.class).setMaxResults(pageSize);
+        if (anchorId != null) {
+            query.setParameter("anchorLastName", anchorLastName);
+            query.setParameter("anchorId", anchorId);
+        }
+        return query.getResultList();
+    }
+
+    /**
+     * Stream the owners through Hibernate's forward-only scrolling support, which assembles one owner graph at a
+     * time from the fetch-joined rows. Each owner is detached once the callback returns so the persistence context
+     * does not grow with the export.
+     *
+     * @param fetchSize number of rows fetched per round trip
+     * @see org.springframework.samples.petclinic.repository.OwnerRepository#forEachOwner
+     */
+    public static void forEachOwner(EntityManager em, int fetchSize, Consumer<Owner> action) {
+        try (Stream<Owner> owners = em.createQuery(
+            "SELECT owner FROM Owner owner left join fetch owner.pets pet left join fetch pet.visits ORDER BY owner.id, pet.id",
+            Owner.class)
+            .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+            .setHint(QueryHints.HINT_READONLY, true)
+            .getResultStream()) {
+            owners.forEach(owner -> {
+                action.accept(owner);
+                em.detach(owner);
+            });
+        }
+    }
+
+}
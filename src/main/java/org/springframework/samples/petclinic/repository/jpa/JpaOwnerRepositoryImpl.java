@@ -16,13 +16,19 @@
 package org.springframework.samples.petclinic.repository.jpa;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import javax.persistence.Query;
+import javax.persistence.TypedQuery;
 
-import org.springframework.orm.hibernate5.support.OpenSessionInViewFilter;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.samples.petclinic.model.Owner;
+import org.springframework.samples.petclinic.model.OwnerName;
+import org.springframework.samples.petclinic.model.OwnerSummary;
 import org.springframework.samples.petclinic.repository.OwnerRepository;
 import org.springframework.stereotype.Repository;
 
@@ -41,21 +47,47 @@ public class JpaOwnerRepositoryImpl implements OwnerRepository {
     @PersistenceContext
     private EntityManager em;
 
+    @Value("${jdbc.fetchSize}")
+    private int fetchSize;
+
 
     /**
-     * Important: in the current version of this method, we load Owners with all their Pets and Visits while
-     * we do not need Visits at all and we only need one property from the Pet objects (the 'name' property).
-     * There are some ways to improve it such as:
-     * - creating a Ligtweight class (example here: https://community.jboss.org/wiki/LightweightClass)
-     * - Turning on lazy-loading and using {@link OpenSessionInViewFilter}
+     * Searches in two phases, see {@link JpaOwnerQueries}.
      */
-    @SuppressWarnings("unchecked")
+    @Override
     public Collection<Owner> findByLastName(String lastName) {
-        // using 'join fetch' because a single query should load both owners and pets
-        // using 'left join fetch' because it might happen that an owner does not have pets yet
-        Query query = this.em.createQuery("SELECT DISTINCT owner FROM Owner owner left join fetch owner.pets WHERE owner.lastName LIKE :lastName");
-        query.setParameter("lastName", lastName + "%");
-        return query.getResultList();
+        return JpaOwnerQueries.findOwnersWithPetsAndVisits(this.em, ownerIdsByLastName(lastName).getResultList());
+    }
+
+    @Override
+    public List<Owner> findByLastName(String lastName, int offset, int limit) {
+        return JpaOwnerQueries.findOwnersWithPetsAndVisits(this.em, ownerIdsByLastName(lastName)
+            .setFirstResult(offset)
+            .setMaxResults(limit)
+            .getResultList());
+    }
+
+    private TypedQuery<Integer> ownerIdsByLastName(String lastName) {
+        return this.em.createQuery(
+            "SELECT owner.id FROM Owner owner WHERE owner.lastName LIKE :lastName ORDER BY owner.lastName, owner.id",
+            Integer.class)
+            .setParameter("lastName", lastName + "%");
+    }
+
+    @Override
+    public List<OwnerSummary> findPageByLastName(String lastName, String anchorLastName, Integer anchorId,
+                                                 boolean backward, int pageSize) {
+        return JpaOwnerQueries.findPageByLastName(this.em, lastName, anchorLastName, anchorId, backward, pageSize);
+    }
+
+    @Override
+    public List<OwnerName> findNamePage(String anchorLastName, Integer anchorId, int pageSize) {
+        return JpaOwnerQueries.findNamePage(this.em, anchorLastName, anchorId, pageSize);
+    }
+
+    @Override
+    public void forEachOwner(Consumer<Owner> action) {
+        JpaOwnerQueries.forEachOwner(this.em, this.fetchSize, action);
     }
 
     @Override
@@ -67,6 +99,15 @@ public class JpaOwnerRepositoryImpl implements OwnerRepository {
         return (Owner) query.getSingleResult();
     }
 
+    @Override
+    public Owner findByIdWithVisits(int id) {
+        // the entity graph joins the pets, their types and their visits to the owner query
+        return this.em.createQuery("SELECT DISTINCT owner FROM Owner owner WHERE owner.id = :id", Owner.class)
+            .setParameter("id", id)
+            .setHint(QueryHints.HINT_LOADGRAPH, this.em.getEntityGraph("Owner.petsAndVisits"))
+            .getSingleResult();
+    }
+
 
     @Override
     public void save(Owner owner) {
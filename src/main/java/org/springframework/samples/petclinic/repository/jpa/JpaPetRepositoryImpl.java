@@ -15,11 +15,13 @@
  */
 package org.springframework.samples.petclinic.repository.jpa;
 
+import java.util.Collections;
 import java.util.List;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 
+import org.hibernate.jpa.QueryHints;
 import org.springframework.samples.petclinic.model.Pet;
 import org.springframework.samples.petclinic.model.PetType;
 import org.springframework.samples.petclinic.repository.PetRepository;
@@ -48,7 +50,18 @@ public class JpaPetRepositoryImpl implements PetRepository {
 
     @Override
     public Pet findById(int id) {
-        return this.em.find(Pet.class, id);
+        // the visits are lazy; the entity graph loads them, and the pet type, with the pet
+        return this.em.find(Pet.class, id,
+            Collections.singletonMap(QueryHints.HINT_LOADGRAPH, this.em.getEntityGraph("Pet.visits")));
+    }
+
+    @Override
+    public Pet findByIdWithoutVisits(int id) {
+        // the visits are lazy and left unloaded
+        return this.em.createQuery(
+            "SELECT pet FROM Pet pet JOIN FETCH pet.type JOIN FETCH pet.owner WHERE pet.id = :id", Pet.class)
+            .setParameter("id", id)
+            .getSingleResult();
     }
 
     @Override
@@ -15,6 +15,7 @@
  */
 package org.springframework.samples.petclinic.repository.jpa;
 
+import org.springframework.samples.petclinic.model.Specialty;
 import org.springframework.samples.petclinic.model.Vet;
 import org.springframework.samples.petclinic.repository.VetRepository;
 import org.springframework.stereotype.Repository;
@@ -45,4 +46,9 @@ public class JpaVetRepositoryImpl implements VetRepository {
         return this.em.createQuery("SELECT distinct vet FROM Vet vet left join fetch vet.specialties ORDER BY vet.lastName, vet.firstName").getResultList();
     }
 
+    @Override
+    public Collection<Specialty> findSpecialties() {
+        return this.em.createQuery("SELECT specialty FROM Specialty specialty ORDER BY specialty.name", Specialty.class).getResultList();
+    }
+
 }
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2002-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.repository.jpa;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+
+import org.springframework.samples.petclinic.model.Visit;
+
+/**
+ * Visit operations shared by the JPA and the Spring Data JPA implementations of the <code>VisitRepository</code>.
+ */
+public abstract class JpaVisitQueries {
+
+    /**
+     * Persist the visits, flushing and clearing the persistence context every <code>batchSize</code> visits so that
+     * the inserts are sent in groups and memory stays bounded. Note that this detaches every entity of the current
+     * persistence context.
+     *
+     * @return the ids of the new visits, in the order of the visits
+     * @see org.springframework.samples.petclinic.repository.VisitRepository#saveVisits
+     */
+    public static List<Integer> saveVisits(EntityManager em, int batchSize, Collection<Visit> visits) {
+        List<Integer> ids = new ArrayList<>(visits.size());
+        List<Visit> pending = new ArrayList<>(batchSize);
+        for (Visit visit : visits) {
+            if (!visit.isNew()) {
+                throw new UnsupportedOperationException("Visit update not supported");
+            }
+            em.persist(visit);
+            pending.add(visit);
+            if (pending.size() == batchSize) {
+                flushBatch(em, pending, ids);
+            }
+        }
+        if (!pending.isEmpty()) {
+            flushBatch(em, pending, ids);
+        }
+        return ids;
+    }
+
+    private static void flushBatch(EntityManager em, List<Visit> pending, List<Integer> ids) {
+        em.flush();
+        em.clear();
+        for (Visit visit : pending) {
+            ids.add(visit.getId());
+        }
+        pending.clear();
+    }
+
+}
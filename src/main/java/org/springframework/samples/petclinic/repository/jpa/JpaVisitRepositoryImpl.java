@@ -15,12 +15,18 @@
  */
 package org.springframework.samples.petclinic.repository.jpa;
 
+import java.util.Collection;
 import java.util.List;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import javax.persistence.Query;
 
+import org.hibernate.jpa.QueryHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.samples.petclinic.model.Visit;
 import org.springframework.samples.petclinic.repository.VisitRepository;
 import org.springframework.stereotype.Repository;
@@ -42,6 +48,9 @@ public class JpaVisitRepositoryImpl implements VisitRepository {
     @PersistenceContext
     private EntityManager em;
 
+    @Value("${jdbc.batchSize}")
+    private int batchSize;
+
 
     @Override
     public void save(Visit visit) {
@@ -53,6 +62,11 @@ public class JpaVisitRepositoryImpl implements VisitRepository {
     }
 
 
+    @Override
+    public List<Integer> saveVisits(Collection<Visit> visits) {
+        return JpaVisitQueries.saveVisits(this.em, this.batchSize, visits);
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public List<Visit> findByPetId(Integer petId) {
@@ -61,4 +75,24 @@ public class JpaVisitRepositoryImpl implements VisitRepository {
         return query.getResultList();
     }
 
+    /**
+     * Reads one row more than the page size to tell whether another slice follows; the visits are loaded read-only
+     * since they are only displayed.
+     */
+    @Override
+    public Slice<Visit> findByPetId(Integer petId, Pageable pageable) {
+        List<Visit> visits = this.em.createQuery(
+            "SELECT v FROM Visit v WHERE v.pet.id = :id ORDER BY v.date DESC, v.id DESC", Visit.class)
+            .setParameter("id", petId)
+            .setFirstResult(Math.toIntExact(pageable.getOffset()))
+            .setMaxResults(pageable.getPageSize() + 1)
+            .setHint(QueryHints.HINT_READONLY, true)
+            .getResultList();
+        boolean hasNext = visits.size() > pageable.getPageSize();
+        if (hasNext) {
+            visits = visits.subList(0, pageable.getPageSize());
+        }
+        return new SliceImpl<>(visits, pageable, hasNext);
+    }
+
 }
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2002-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.repository.springdatajpa;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Unsorted {@link Pageable} addressing rows by offset rather than by page number, for the
+ * <code>OwnerRepository</code> methods taking an arbitrary offset; the ordering comes from the query itself.
+ */
+final class OffsetLimitRequest implements Pageable {
+
+    private final long offset;
+
+    private final int limit;
+
+    OffsetLimitRequest(long offset, int limit) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset must not be negative");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        this.offset = offset;
+        this.limit = limit;
+    }
+
+    @Override
+    public int getPageNumber() {
+        return (int) (this.offset / this.limit);
+    }
+
+    @Override
+    public int getPageSize() {
+        return this.limit;
+    }
+
+    @Override
+    public long getOffset() {
+        return this.offset;
+    }
+
+    @Override
+    public Sort getSort() {
+        return Sort.unsorted();
+    }
+
+    @Override
+    public Pageable next() {
+        return new OffsetLimitRequest(this.offset + this.limit, this.limit);
+    }
+
+    @Override
+    public Pageable previousOrFirst() {
+        return hasPrevious() ? new OffsetLimitRequest(Math.max(0, this.offset - this.limit), this.limit) : first();
+    }
+
+    @Override
+    public Pageable first() {
+        return new OffsetLimitRequest(0, this.limit);
+    }
+
+    @Override
+    public boolean hasPrevious() {
+        return this.offset > 0;
+    }
+
+}
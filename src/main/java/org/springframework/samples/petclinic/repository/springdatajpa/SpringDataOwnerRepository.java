@@ -16,12 +16,17 @@
 package org.springframework.samples.petclinic.repository.springdatajpa;
 
 import java.util.Collection;
+import java.util.List;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.EntityGraph.EntityGraphType;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.Repository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.samples.petclinic.model.Owner;
 import org.springframework.samples.petclinic.repository.OwnerRepository;
+import org.springframework.samples.petclinic.repository.jpa.JpaOwnerQueries;
 
 /**
  * Spring Data JPA specialization of the {@link OwnerRepository} interface
@@ -31,11 +36,31 @@ import org.springframework.samples.petclinic.repository.OwnerRepository;
  */
 public interface SpringDataOwnerRepository extends OwnerRepository, Repository<Owner, Integer> {
 
+    /**
+     * Searches in two phases, see {@link JpaOwnerQueries}: the ids are selected by {@link #findIdsByLastName}, the
+     * owners then loaded by {@link SpringDataOwnerRepositoryImpl}.
+     */
     @Override
-    @Query("SELECT DISTINCT owner FROM Owner owner left join fetch owner.pets WHERE owner.lastName LIKE :lastName%")
-    public Collection<Owner> findByLastName(@Param("lastName") String lastName);
+    default Collection<Owner> findByLastName(String lastName) {
+        return findWithPetsAndVisitsByIds(findIdsByLastName(lastName, Pageable.unpaged()));
+    }
+
+    @Override
+    default List<Owner> findByLastName(String lastName, int offset, int limit) {
+        return findWithPetsAndVisitsByIds(findIdsByLastName(lastName, new OffsetLimitRequest(offset, limit)));
+    }
+
+    @Query("SELECT owner.id FROM Owner owner WHERE owner.lastName LIKE :lastName% ORDER BY owner.lastName, owner.id")
+    List<Integer> findIdsByLastName(@Param("lastName") String lastName, Pageable pageable);
+
+    List<Owner> findWithPetsAndVisitsByIds(List<Integer> ownerIds);
 
     @Override
     @Query("SELECT owner FROM Owner owner left join fetch owner.pets WHERE owner.id =:id")
     public Owner findById(@Param("id") int id);
+
+    @Override
+    @EntityGraph(value = "Owner.petsAndVisits", type = EntityGraphType.LOAD)
+    @Query("SELECT DISTINCT owner FROM Owner owner WHERE owner.id =:id")
+    public Owner findByIdWithVisits(@Param("id") int id);
 }
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2002-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.repository.springdatajpa;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.samples.petclinic.model.Owner;
+import org.springframework.samples.petclinic.model.OwnerName;
+import org.springframework.samples.petclinic.model.OwnerSummary;
+import org.springframework.samples.petclinic.repository.jpa.JpaOwnerQueries;
+
+/**
+ * Custom implementation of the search and streaming operations of {@link SpringDataOwnerRepository}, delegating to
+ * the {@link JpaOwnerQueries} shared with the JPA profile. Spring Data picks it up through its <code>Impl</code>
+ * naming convention and routes the matching repository methods to it.
+ */
+public class SpringDataOwnerRepositoryImpl {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Value("${jdbc.fetchSize}")
+    private int fetchSize;
+
+    /**
+     * Second phase of the owner searches of {@link SpringDataOwnerRepository}, see {@link JpaOwnerQueries}.
+     */
+    public List<Owner> findWithPetsAndVisitsByIds(List<Integer> ownerIds) {
+        return JpaOwnerQueries.findOwnersWithPetsAndVisits(this.em, ownerIds);
+    }
+
+    public List<OwnerSummary> findPageByLastName(String lastName, String anchorLastName, Integer anchorId,
+                                                 boolean backward, int pageSize) {
+        return JpaOwnerQueries.findPageByLastName(this.em, lastName, anchorLastName, anchorId, backward, pageSize);
+    }
+
+    public List<OwnerName> findNamePage(String anchorLastName, Integer anchorId, int pageSize) {
+        return JpaOwnerQueries.findNamePage(this.em, anchorLastName, anchorId, pageSize);
+    }
+
+    public void forEachOwner(Consumer<Owner> action) {
+        JpaOwnerQueries.forEachOwner(this.em, this.fetchSize, action);
+    }
+
+}
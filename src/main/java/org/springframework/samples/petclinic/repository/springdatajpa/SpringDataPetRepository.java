@@ -18,8 +18,11 @@ package org.springframework.samples.petclinic.repository.springdatajpa;
 import java.util.List;
 
 import org.springframework.dao.DataAccessException;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.EntityGraph.EntityGraphType;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.samples.petclinic.model.Pet;
 import org.springframework.samples.petclinic.model.PetType;
 import org.springframework.samples.petclinic.repository.PetRepository;
@@ -35,4 +38,12 @@ public interface SpringDataPetRepository extends PetRepository, Repository<Pet,
     @Override
     @Query("SELECT ptype FROM PetType ptype ORDER BY ptype.name")
     List<PetType> findPetTypes() throws DataAccessException;
+
+    @Override
+    @EntityGraph(value = "Pet.visits", type = EntityGraphType.LOAD)
+    Pet findById(int id) throws DataAccessException;
+
+    @Override
+    @Query("SELECT pet FROM Pet pet JOIN FETCH pet.type JOIN FETCH pet.owner WHERE pet.id = :id")
+    Pet findByIdWithoutVisits(@Param("id") int id) throws DataAccessException;
 }
@@ -15,7 +15,14 @@
  */
 package org.springframework.samples.petclinic.repository.springdatajpa;
 
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.samples.petclinic.model.Visit;
 import org.springframework.samples.petclinic.repository.VisitRepository;
 
@@ -26,4 +33,10 @@ import org.springframework.samples.petclinic.repository.VisitRepository;
  * @since 15.1.2013
  */
 public interface SpringDataVisitRepository extends VisitRepository, Repository<Visit, Integer> {
+
+    // a Slice return type makes Spring Data read one extra row instead of issuing a count query
+    @Override
+    @Query("SELECT v FROM Visit v WHERE v.pet.id = :id ORDER BY v.date DESC, v.id DESC")
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"))
+    Slice<Visit> findByPetId(@Param("id") Integer petId, Pageable pageable);
 }
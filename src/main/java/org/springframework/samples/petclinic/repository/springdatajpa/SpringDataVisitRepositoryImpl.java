@@ -0,0 +1,45 @@
+/*
+ * Copyright 2002-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.repository.springdatajpa;
+
+import java.util.Collection;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.samples.petclinic.model.Visit;
+import org.springframework.samples.petclinic.repository.jpa.JpaVisitQueries;
+
+/**
+ * Custom implementation of the batch operations of {@link SpringDataVisitRepository}, delegating to the
+ * {@link JpaVisitQueries} shared with the JPA profile. Spring Data picks it up through its <code>Impl</code> naming
+ * convention and routes the matching repository methods to it.
+ */
+public class SpringDataVisitRepositoryImpl {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Value("${jdbc.batchSize}")
+    private int batchSize;
+
+    public List<Integer> saveVisits(Collection<Visit> visits) {
+        return JpaVisitQueries.saveVisits(this.em, this.batchSize, visits);
+    }
+
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2002-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.samples.petclinic.model.Owner;
+import org.springframework.samples.petclinic.model.OwnerSummary;
+import org.springframework.samples.petclinic.model.Visit;
+
+
+/**
+ * Asynchronous variant of the read operations of {@link ClinicService}, used by controllers that release the servlet
+ * thread while the database is queried. Each call runs on a dedicated, bounded executor; the futures complete
+ * exceptionally with the <code>DataAccessException</code> thrown by the underlying {@link ClinicService}.
+ */
+public interface AsyncClinicService {
+
+    CompletableFuture<Owner> findOwnerWithVisitsById(int id);
+
+    CompletableFuture<List<OwnerSummary>> findOwnerPageByLastName(String lastName, String anchorLastName, Integer anchorId,
+                                                          boolean backward, int pageSize);
+
+    CompletableFuture<Slice<Visit>> findVisitsByPetId(int petId, Pageable pageable);
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2002-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.samples.petclinic.model.Owner;
+import org.springframework.samples.petclinic.model.OwnerSummary;
+import org.springframework.samples.petclinic.model.Visit;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs {@link ClinicService} calls on the <code>clinicServiceExecutor</code>. Transactions and caching are still
+ * applied by the {@link ClinicService} proxy, on the executor thread.
+ */
+@Service
+public class AsyncClinicServiceImpl implements AsyncClinicService {
+
+    private final ClinicService clinicService;
+
+    private final Executor executor;
+
+    @Autowired
+    public AsyncClinicServiceImpl(ClinicService clinicService, @Qualifier("clinicServiceExecutor") Executor executor) {
+        this.clinicService = clinicService;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<Owner> findOwnerWithVisitsById(int id) {
+        return CompletableFuture.supplyAsync(() -> clinicService.findOwnerWithVisitsById(id), executor);
+    }
+
+    @Override
+    public CompletableFuture<List<OwnerSummary>> findOwnerPageByLastName(String lastName, String anchorLastName,
+                                                                 Integer anchorId, boolean backward, int pageSize) {
+        return CompletableFuture.supplyAsync(
+            () -> clinicService.findOwnerPageByLastName(lastName, anchorLastName, anchorId, backward, pageSize), executor);
+    }
+
+    @Override
+    public CompletableFuture<Slice<Visit>> findVisitsByPetId(int petId, Pageable pageable) {
+        return CompletableFuture.supplyAsync(() -> clinicService.findVisitsByPetId(petId, pageable), executor);
+    }
+
+}
@@ -16,9 +16,15 @@
 package org.springframework.samples.petclinic.service;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
 
 import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.samples.petclinic.model.Owner;
+import org.springframework.samples.petclinic.model.OwnerName;
+import org.springframework.samples.petclinic.model.OwnerSummary;
 import org.springframework.samples.petclinic.model.Pet;
 import org.springframework.samples.petclinic.model.PetType;
 import org.springframework.samples.petclinic.model.Vet;
@@ -34,20 +40,39 @@ public interface ClinicService {
 
     Collection<PetType> findPetTypes() throws DataAccessException;
 
+    PetType findPetTypeByName(String name) throws DataAccessException;
+
     Owner findOwnerById(int id) throws DataAccessException;
 
+    Owner findOwnerWithVisitsById(int id) throws DataAccessException;
+
     Pet findPetById(int id) throws DataAccessException;
 
+    Pet findPetWithoutVisitsById(int id) throws DataAccessException;
+
     void savePet(Pet pet) throws DataAccessException;
 
     void saveVisit(Visit visit) throws DataAccessException;
 
+    List<Integer> saveVisits(Collection<Visit> visits) throws DataAccessException;
+
     Collection<Vet> findVets() throws DataAccessException;
 
     void saveOwner(Owner owner) throws DataAccessException;
 
     Collection<Owner> findOwnerByLastName(String lastName) throws DataAccessException;
 
+    List<Owner> findOwnerByLastName(String lastName, int offset, int limit) throws DataAccessException;
+
+    List<OwnerName> findOwnerNamesByLastName(String lastName, int maxResults) throws DataAccessException;
+
+    List<OwnerSummary> findOwnerPageByLastName(String lastName, String anchorLastName, Integer anchorId, boolean backward,
+                                        int pageSize) throws DataAccessException;
+
+    void exportOwners(Consumer<Owner> action) throws DataAccessException;
+
 	Collection<Visit> findVisitsByPetId(int petId);
 
+    Slice<Visit> findVisitsByPetId(int petId, Pageable pageable) throws DataAccessException;
+
 }
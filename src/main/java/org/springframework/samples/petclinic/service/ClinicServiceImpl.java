@@ -15,18 +15,29 @@
  */
 package org.springframework.samples.petclinic.service;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.samples.petclinic.model.Owner;
+import org.springframework.samples.petclinic.model.OwnerName;
+import org.springframework.samples.petclinic.model.OwnerSummary;
 import org.springframework.samples.petclinic.model.Pet;
 import org.springframework.samples.petclinic.model.PetType;
 import org.springframework.samples.petclinic.model.Vet;
 import org.springframework.samples.petclinic.model.Visit;
+import org.springframework.samples.petclinic.repository.OwnerNameIndex;
 import org.springframework.samples.petclinic.repository.OwnerRepository;
 import org.springframework.samples.petclinic.repository.PetRepository;
+import org.springframework.samples.petclinic.repository.ReferenceDataRegistry;
+import org.springframework.samples.petclinic.repository.VetRegistry;
 import org.springframework.samples.petclinic.repository.VetRepository;
 import org.springframework.samples.petclinic.repository.VisitRepository;
 import org.springframework.stereotype.Service;
@@ -45,25 +56,53 @@ public class ClinicServiceImpl implements ClinicService {
     private VetRepository vetRepository;
     private OwnerRepository ownerRepository;
     private VisitRepository visitRepository;
+    private ReferenceDataRegistry referenceDataRegistry;
+    private OwnerNameIndex ownerNameIndex;
+    private VetRegistry vetRegistry;
 
     @Autowired
-    public ClinicServiceImpl(PetRepository petRepository, VetRepository vetRepository, OwnerRepository ownerRepository, VisitRepository visitRepository) {
+    public ClinicServiceImpl(PetRepository petRepository, VetRepository vetRepository, OwnerRepository ownerRepository, VisitRepository visitRepository,
+                             ReferenceDataRegistry referenceDataRegistry, OwnerNameIndex ownerNameIndex, VetRegistry vetRegistry) {
         this.petRepository = petRepository;
         this.vetRepository = vetRepository;
         this.ownerRepository = ownerRepository;
         this.visitRepository = visitRepository;
+        this.referenceDataRegistry = referenceDataRegistry;
+        this.ownerNameIndex = ownerNameIndex;
+        this.vetRegistry = vetRegistry;
     }
 
+    /**
+     * Served from the {@link ReferenceDataRegistry}, hence not transactional: no connection is needed once the
+     * registry has been loaded.
+     */
     @Override
-    @Transactional(readOnly = true)
     public Collection<PetType> findPetTypes() throws DataAccessException {
-        return petRepository.findPetTypes();
+        return referenceDataRegistry.getPetTypes();
     }
 
+    @Override
+    public PetType findPetTypeByName(String name) throws DataAccessException {
+        return referenceDataRegistry.getPetTypeByName(name);
+    }
+
+    /**
+     * Cached in the "owners" cache, which copies the owner graphs on read and on write: callers may modify the
+     * returned owner (e.g. through form binding) without affecting the cached one.
+     * <p>The owner is loaded with the visits of its pets: a cached copy is detached from any persistence context, so
+     * the graph must be complete before it is cached.
+     */
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(value = "owners")
     public Owner findOwnerById(int id) throws DataAccessException {
-        return ownerRepository.findById(id);
+        return ownerRepository.findByIdWithVisits(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Owner findOwnerWithVisitsById(int id) throws DataAccessException {
+        return ownerRepository.findByIdWithVisits(id);
     }
 
     @Override
@@ -72,19 +111,64 @@ public class ClinicServiceImpl implements ClinicService {
         return ownerRepository.findByLastName(lastName);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Owner> findOwnerByLastName(String lastName, int offset, int limit) throws DataAccessException {
+        return ownerRepository.findByLastName(lastName, offset, limit);
+    }
+
+    /**
+     * Served from the {@link OwnerNameIndex}, hence not transactional; queries the repository only while the index
+     * is not loaded yet.
+     */
+    @Override
+    public List<OwnerName> findOwnerNamesByLastName(String lastName, int maxResults) throws DataAccessException {
+        List<OwnerName> names = ownerNameIndex.findByLastName(lastName, maxResults);
+        if (names == null) {
+            names = new ArrayList<>();
+            for (OwnerSummary owner : ownerRepository.findPageByLastName(lastName, null, null, false, maxResults)) {
+                names.add(new OwnerName(owner.getId(), owner.getFirstName(), owner.getLastName()));
+            }
+        }
+        return names;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<OwnerSummary> findOwnerPageByLastName(String lastName, String anchorLastName, Integer anchorId,
+                                               boolean backward, int pageSize) throws DataAccessException {
+        return ownerRepository.findPageByLastName(lastName, anchorLastName, anchorId, backward, pageSize);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportOwners(Consumer<Owner> action) throws DataAccessException {
+        ownerRepository.forEachOwner(action);
+    }
+
     @Override
     @Transactional
+    @CacheEvict(value = "owners", key = "#owner.id")
     public void saveOwner(Owner owner) throws DataAccessException {
         ownerRepository.save(owner);
+        ownerNameIndex.ownerSaved(owner);
     }
 
 
     @Override
     @Transactional
+    @CacheEvict(value = "owners", key = "#visit.pet.owner.id")
     public void saveVisit(Visit visit) throws DataAccessException {
         visitRepository.save(visit);
     }
 
+    @Override
+    @Transactional
+    @CacheEvict(value = "owners", allEntries = true)
+    public List<Integer> saveVisits(Collection<Visit> visits) throws DataAccessException {
+        return visitRepository.saveVisits(visits);
+    }
+
 
     @Override
     @Transactional(readOnly = true)
@@ -92,17 +176,25 @@ public class ClinicServiceImpl implements ClinicService {
         return petRepository.findById(id);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Pet findPetWithoutVisitsById(int id) throws DataAccessException {
+        return petRepository.findByIdWithoutVisits(id);
+    }
+
     @Override
     @Transactional
+    @CacheEvict(value = "owners", key = "#pet.owner.id")
     public void savePet(Pet pet) throws DataAccessException {
         petRepository.save(pet);
     }
 
+    /**
+     * Served from the {@link VetRegistry}, hence not transactional: the snapshot is refreshed in the background.
+     */
     @Override
-    @Transactional(readOnly = true)
-    @Cacheable(value = "vets")
     public Collection<Vet> findVets() throws DataAccessException {
-        return vetRepository.findAll();
+        return vetRegistry.getVets();
     }
 
 	@Override
@@ -110,5 +202,11 @@ public class ClinicServiceImpl implements ClinicService {
 		return visitRepository.findByPetId(petId);
 	}
 
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<Visit> findVisitsByPetId(int petId, Pageable pageable) throws DataAccessException {
+        return visitRepository.findByPetId(petId, pageable);
+    }
+
 
 }
@@ -15,18 +15,38 @@
  */
 package org.springframework.samples.petclinic.util;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.openmbean.CompositeDataSupport;
+import javax.management.openmbean.CompositeType;
+import javax.management.openmbean.OpenDataException;
+import javax.management.openmbean.OpenType;
+import javax.management.openmbean.SimpleType;
+import javax.management.openmbean.TabularData;
+import javax.management.openmbean.TabularDataSupport;
+import javax.management.openmbean.TabularType;
+
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.springframework.jmx.export.annotation.ManagedAttribute;
 import org.springframework.jmx.export.annotation.ManagedOperation;
 import org.springframework.jmx.export.annotation.ManagedResource;
-import org.springframework.util.StopWatch;
 
 /**
  * Simple aspect that monitors call count and call invocation time. It uses JMX annotations and therefore can be
  * monitored using any JMX console such as the jConsole
  * <p/>
+ * Besides the overall count and average, each repository method gets its own count and latency histogram, exposed
+ * as the <code>MethodStatistics</code> table (mean, p50, p95, p99 and max, in nanoseconds). Calls are recorded
+ * without locking: counters are {@link LongAdder}s and the histograms use atomic buckets.
+ * <p/>
  * This is only useful if you use JPA or JDBC.  Spring-data-jpa doesn't have any correctly annotated classes to join on
  *
  * @author Rob Harrop
@@ -38,11 +58,31 @@ import org.springframework.util.StopWatch;
 @Aspect
 public class CallMonitoringAspect {
 
-    private boolean enabled = true;
+    private static final String[] STATISTICS_ITEMS =
+        {"method", "count", "meanNanos", "p50Nanos", "p95Nanos", "p99Nanos", "maxNanos"};
+
+    private static final TabularType STATISTICS_TYPE;
+
+    static {
+        try {
+            OpenType<?>[] itemTypes = {SimpleType.STRING, SimpleType.LONG, SimpleType.LONG, SimpleType.LONG,
+                SimpleType.LONG, SimpleType.LONG, SimpleType.LONG};
+            CompositeType rowType = new CompositeType("MethodStatistics", "Latency of one repository method",
+                STATISTICS_ITEMS, STATISTICS_ITEMS, itemTypes);
+            STATISTICS_TYPE = new TabularType("MethodStatisticsTable", "Latency per repository method",
+                rowType, new String[]{"method"});
+        } catch (OpenDataException ex) {
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
+
+    private volatile boolean enabled = true;
 
-    private int callCount = 0;
+    private final LongAdder callCount = new LongAdder();
 
-    private long accumulatedCallTime = 0;
+    private final LongAdder accumulatedCallNanos = new LongAdder();
+
+    private final ConcurrentMap<String, MethodStatistics> methodStatistics = new ConcurrentHashMap<>();
 
     @ManagedAttribute
     public boolean isEnabled() {
@@ -56,42 +96,123 @@ public class CallMonitoringAspect {
 
     @ManagedOperation
     public void reset() {
-        this.callCount = 0;
-        this.accumulatedCallTime = 0;
+        this.callCount.reset();
+        this.accumulatedCallNanos.reset();
+        this.methodStatistics.clear();
     }
 
     @ManagedAttribute
     public int getCallCount() {
-        return callCount;
+        return (int) callCount.sum();
     }
 
     @ManagedAttribute
     public long getCallTime() {
-        if (this.callCount > 0)
-            return this.accumulatedCallTime / this.callCount;
+        long calls = this.callCount.sum();
+        if (calls > 0)
+            return TimeUnit.NANOSECONDS.toMillis(this.accumulatedCallNanos.sum() / calls);
         else
             return 0;
     }
 
+    @ManagedAttribute(description = "Call count and latency percentiles per repository method, in nanoseconds")
+    public TabularData getMethodStatistics() throws OpenDataException {
+        TabularDataSupport table = new TabularDataSupport(STATISTICS_TYPE);
+        for (Map.Entry<String, MethodStatistics> entry : this.methodStatistics.entrySet()) {
+            MethodStatistics statistics = entry.getValue();
+            table.put(new CompositeDataSupport(STATISTICS_TYPE.getRowType(), STATISTICS_ITEMS, new Object[]{
+                entry.getKey(), statistics.count.sum(), statistics.mean(), statistics.percentile(0.50),
+                statistics.percentile(0.95), statistics.percentile(0.99), statistics.max.get()}));
+        }
+        return table;
+    }
+
 
     @Around("within(@org.springframework.stereotype.Repository *)")
     public Object invoke(ProceedingJoinPoint joinPoint) throws Throwable {
         if (this.enabled) {
-            StopWatch sw = new StopWatch(joinPoint.toShortString());
-
-            sw.start("invoke");
+            long start = System.nanoTime();
             try {
                 return joinPoint.proceed();
             } finally {
-                sw.stop();
-                synchronized (this) {
-                    this.callCount++;
-                    this.accumulatedCallTime += sw.getTotalTimeMillis();
-                }
+                long nanos = System.nanoTime() - start;
+                this.callCount.increment();
+                this.accumulatedCallNanos.add(nanos);
+                this.methodStatistics
+                    .computeIfAbsent(joinPoint.getSignature().toShortString(), signature -> new MethodStatistics())
+                    .record(nanos);
             }
         } else {
             return joinPoint.proceed();
         }
     }
 
+    /**
+     * Count, total, maximum and histogram of the latencies of one method. The histogram has 8 linear sub-buckets per
+     * power of two, so a percentile is accurate to within 12.5%.
+     */
+    private static final class MethodStatistics {
+
+        private static final int SUB_BUCKET_BITS = 3;
+
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+        private final LongAdder count = new LongAdder();
+
+        private final LongAdder totalNanos = new LongAdder();
+
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        private final AtomicLongArray buckets = new AtomicLongArray(bucketIndex(Long.MAX_VALUE) + 1);
+
+        private void record(long nanos) {
+            this.count.increment();
+            this.totalNanos.add(nanos);
+            this.max.accumulate(nanos);
+            this.buckets.incrementAndGet(bucketIndex(nanos));
+        }
+
+        private long mean() {
+            long calls = this.count.sum();
+            return calls > 0 ? this.totalNanos.sum() / calls : 0;
+        }
+
+        /**
+         * @return the upper bound of the bucket holding the given quantile, capped by the maximum
+         */
+        private long percentile(double quantile) {
+            long total = 0;
+            for (int i = 0; i < this.buckets.length(); i++) {
+                total += this.buckets.get(i);
+            }
+            long rank = (long) Math.ceil(quantile * total);
+            long seen = 0;
+            for (int i = 0; i < this.buckets.length(); i++) {
+                seen += this.buckets.get(i);
+                if (seen >= rank && seen > 0) {
+                    return Math.min(bucketUpperBound(i), this.max.get());
+                }
+            }
+            return 0;
+        }
+
+        private static int bucketIndex(long nanos) {
+            if (nanos < SUB_BUCKETS) {
+                return (int) Math.max(nanos, 0);
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+            int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+            return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+        }
+
+        private static long bucketUpperBound(int index) {
+            if (index < SUB_BUCKETS) {
+                return index;
+            }
+            int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+            long lower = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+            return lower + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+        }
+    }
+
 }
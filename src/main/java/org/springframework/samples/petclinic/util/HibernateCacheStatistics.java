@@ -0,0 +1,83 @@
+/*
+ * Copyright 2002-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.util;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedOperationParameter;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+/**
+ * Exposes the second-level cache statistics of the Hibernate <code>SessionFactory</code> through JMX, so
+ * the effect of the cache regions configured in <code>cache/ehcache.xml</code> can be monitored with any JMX console
+ * such as the jConsole. Requires <code>hibernate.generate_statistics</code>.
+ */
+@ManagedResource("petclinic:type=HibernateCacheStatistics")
+public class HibernateCacheStatistics {
+
+    private final Statistics statistics;
+
+    public HibernateCacheStatistics(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ManagedAttribute
+    public long getSecondLevelCacheHitCount() {
+        return this.statistics.getSecondLevelCacheHitCount();
+    }
+
+    @ManagedAttribute
+    public long getSecondLevelCacheMissCount() {
+        return this.statistics.getSecondLevelCacheMissCount();
+    }
+
+    @ManagedAttribute
+    public long getSecondLevelCachePutCount() {
+        return this.statistics.getSecondLevelCachePutCount();
+    }
+
+    @ManagedAttribute
+    public long getQueryExecutionCount() {
+        return this.statistics.getQueryExecutionCount();
+    }
+
+    @ManagedAttribute
+    public String[] getSecondLevelCacheRegionNames() {
+        return this.statistics.getSecondLevelCacheRegionNames();
+    }
+
+    @ManagedOperation(description = "Hit, miss and put counts of a cache region")
+    @ManagedOperationParameter(name = "regionName", description = "Name of the cache region")
+    public String getRegionStatistics(String regionName) {
+        CacheRegionStatistics region = this.statistics.getCacheRegionStatistics(regionName);
+        if (region == null) {
+            return "No such region: " + regionName;
+        }
+        return "hits=" + region.getHitCount() + ", misses=" + region.getMissCount() + ", puts=" + region.getPutCount()
+            + ", elementsInMemory=" + region.getElementCountInMemory();
+    }
+
+    @ManagedOperation
+    public void reset() {
+        this.statistics.clear();
+    }
+
+}
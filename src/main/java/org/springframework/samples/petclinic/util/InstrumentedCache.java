@@ -0,0 +1,272 @@
+/*
+ * Copyright 2002-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.util;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import net.sf.ehcache.Ehcache;
+
+import org.springframework.cache.Cache;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+/**
+ * {@link Cache} decorator counting the hits, misses, puts and evictions of one cache region and timing the loads of
+ * missed entries, exposed through JMX by the {@link InstrumentedCacheManager} together with operations to clear and
+ * warm the region.
+ * <p>
+ * A load is timed from a miss to the following put of the same key on the same thread, which is how
+ * <code>@Cacheable</code> invokes the cached method. Every lookup, and {@link #warm()}, discards the pending load of
+ * the thread, so a miss whose load failed is never matched with a later, unrelated put. The size and the evictions decided by the provider (size or
+ * time limits) are read from the native Ehcache or Caffeine cache, when available.
+ */
+@ManagedResource
+public class InstrumentedCache implements Cache {
+
+    private final Cache target;
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder putCount = new LongAdder();
+
+    private final LongAdder evictCount = new LongAdder();
+
+    private final LongAdder clearCount = new LongAdder();
+
+    private final LongAdder loadCount = new LongAdder();
+
+    private final LongAdder loadNanos = new LongAdder();
+
+    private final ThreadLocal<PendingLoad> pendingLoad = new ThreadLocal<>();
+
+    private volatile Consumer<Cache> warmer;
+
+    public InstrumentedCache(Cache target) {
+        this.target = target;
+    }
+
+    /**
+     * @param warmer the callback filling this cache when {@link #warm()} is invoked
+     */
+    public void setWarmer(Consumer<Cache> warmer) {
+        this.warmer = warmer;
+    }
+
+    @Override
+    public String getName() {
+        return this.target.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this.target.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper value = this.target.get(key);
+        recordLookup(key, value != null);
+        return value;
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        T value = this.target.get(key, type);
+        recordLookup(key, value != null);
+        return value;
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        boolean[] loaded = new boolean[1];
+        T value = this.target.get(key, () -> {
+            loaded[0] = true;
+            long start = System.nanoTime();
+            try {
+                return valueLoader.call();
+            } finally {
+                recordLoad(System.nanoTime() - start);
+            }
+        });
+        if (loaded[0]) {
+            this.missCount.increment();
+        } else {
+            this.hitCount.increment();
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        recordPut(key);
+        this.target.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        recordPut(key);
+        return this.target.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        this.evictCount.increment();
+        this.target.evict(key);
+    }
+
+    @Override
+    @ManagedOperation(description = "Removes all entries of the cache")
+    public void clear() {
+        this.clearCount.increment();
+        this.target.clear();
+    }
+
+    @ManagedOperation(description = "Fills the cache with the entries most likely to be read")
+    public void warm() {
+        Consumer<Cache> currentWarmer = this.warmer;
+        if (currentWarmer == null) {
+            throw new IllegalStateException("No warmer configured for cache '" + getName() + "'");
+        }
+        // the puts of the warmer are not loads of a missed entry
+        this.pendingLoad.remove();
+        currentWarmer.accept(this);
+    }
+
+    @ManagedOperation
+    public void resetStatistics() {
+        this.hitCount.reset();
+        this.missCount.reset();
+        this.putCount.reset();
+        this.evictCount.reset();
+        this.clearCount.reset();
+        this.loadCount.reset();
+        this.loadNanos.reset();
+    }
+
+    @ManagedAttribute
+    public long getHitCount() {
+        return this.hitCount.sum();
+    }
+
+    @ManagedAttribute
+    public long getMissCount() {
+        return this.missCount.sum();
+    }
+
+    @ManagedAttribute
+    public double getHitRatio() {
+        long hits = this.hitCount.sum();
+        long lookups = hits + this.missCount.sum();
+        return lookups > 0 ? (double) hits / lookups : 0;
+    }
+
+    @ManagedAttribute
+    public long getPutCount() {
+        return this.putCount.sum();
+    }
+
+    @ManagedAttribute(description = "Entries evicted by the application, e.g. through @CacheEvict")
+    public long getEvictCount() {
+        return this.evictCount.sum();
+    }
+
+    @ManagedAttribute
+    public long getClearCount() {
+        return this.clearCount.sum();
+    }
+
+    @ManagedAttribute
+    public long getLoadCount() {
+        return this.loadCount.sum();
+    }
+
+    @ManagedAttribute(description = "Average time taken to load a missed entry, in milliseconds")
+    public double getAverageLoadMillis() {
+        long loads = this.loadCount.sum();
+        return loads > 0 ? (double) this.loadNanos.sum() / loads / TimeUnit.MILLISECONDS.toNanos(1) : 0;
+    }
+
+    @ManagedAttribute(description = "Number of entries, or -1 if the provider does not tell")
+    public long getSize() {
+        Object nativeCache = getNativeCache();
+        if (nativeCache instanceof Ehcache) {
+            return ((Ehcache) nativeCache).getSize();
+        }
+        if (nativeCache instanceof com.github.benmanes.caffeine.cache.Cache) {
+            return ((com.github.benmanes.caffeine.cache.Cache<?, ?>) nativeCache).estimatedSize();
+        }
+        return -1;
+    }
+
+    @ManagedAttribute(description = "Entries evicted or expired by the provider, or -1 if the provider does not tell")
+    public long getProviderEvictionCount() {
+        Object nativeCache = getNativeCache();
+        if (nativeCache instanceof Ehcache) {
+            Ehcache ehcache = (Ehcache) nativeCache;
+            return ehcache.getStatistics().cacheEvictedCount() + ehcache.getStatistics().cacheExpiredCount();
+        }
+        if (nativeCache instanceof com.github.benmanes.caffeine.cache.Cache) {
+            // only recorded with 'recordStats' in the cache specification
+            return ((com.github.benmanes.caffeine.cache.Cache<?, ?>) nativeCache).stats().evictionCount();
+        }
+        return -1;
+    }
+
+    private void recordLookup(Object key, boolean hit) {
+        if (hit) {
+            this.hitCount.increment();
+            this.pendingLoad.remove();
+        } else {
+            this.missCount.increment();
+            this.pendingLoad.set(new PendingLoad(key, System.nanoTime()));
+        }
+    }
+
+    private void recordPut(Object key) {
+        this.putCount.increment();
+        PendingLoad load = this.pendingLoad.get();
+        if (load != null) {
+            this.pendingLoad.remove();
+            if (load.key.equals(key)) {
+                recordLoad(System.nanoTime() - load.startNanos);
+            }
+        }
+    }
+
+    private void recordLoad(long nanos) {
+        this.loadCount.increment();
+        this.loadNanos.add(nanos);
+    }
+
+    private static final class PendingLoad {
+
+        private final Object key;
+
+        private final long startNanos;
+
+        private PendingLoad(Object key, long startNanos) {
+            this.key = key;
+            this.startNanos = startNanos;
+        }
+    }
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2002-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jmx.export.MBeanExporter;
+
+/**
+ * {@link CacheManager} decorator wrapping the given caches of the target manager in an {@link InstrumentedCache},
+ * which is registered with JMX as <code>petclinic:type=Cache,name=&lt;cache name&gt;</code>. Only these caches are
+ * served: the Ehcache manager also knows the Hibernate second-level cache regions, which must not be cleared behind
+ * Hibernate's back (clearing the update timestamps would make stale query results look current) and are monitored
+ * through {@link HibernateCacheStatistics} instead.
+ */
+public class InstrumentedCacheManager implements CacheManager {
+
+    private final CacheManager target;
+
+    private final MBeanExporter exporter;
+
+    private final Collection<String> cacheNames;
+
+    private final ConcurrentMap<String, InstrumentedCache> caches = new ConcurrentHashMap<>();
+
+    /**
+     * @param cacheNames the names of the caches used through the Spring cache abstraction
+     */
+    public InstrumentedCacheManager(CacheManager target, MBeanExporter exporter, Collection<String> cacheNames) {
+        this.target = target;
+        this.exporter = exporter;
+        this.cacheNames = Collections.unmodifiableList(new ArrayList<>(cacheNames));
+        for (String name : this.cacheNames) {
+            if (getCache(name) == null) {
+                throw new IllegalArgumentException("No cache named '" + name + "' in the target cache manager");
+            }
+        }
+    }
+
+    /**
+     * Set the callback run by the JMX <code>warm</code> operation of the given cache.
+     */
+    public void setWarmer(String cacheName, Consumer<Cache> warmer) {
+        InstrumentedCache cache = (InstrumentedCache) getCache(cacheName);
+        if (cache == null) {
+            throw new IllegalArgumentException("No cache named '" + cacheName + "'");
+        }
+        cache.setWarmer(warmer);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        if (!this.cacheNames.contains(name)) {
+            return null;
+        }
+        InstrumentedCache cache = this.caches.get(name);
+        if (cache == null) {
+            Cache targetCache = this.target.getCache(name);
+            if (targetCache == null) {
+                return null;
+            }
+            cache = new InstrumentedCache(targetCache);
+            InstrumentedCache existing = this.caches.putIfAbsent(name, cache);
+            if (existing != null) {
+                return existing;
+            }
+            register(cache);
+        }
+        return cache;
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return this.cacheNames;
+    }
+
+    private void register(InstrumentedCache cache) {
+        try {
+            this.exporter.registerManagedResource(cache,
+                ObjectName.getInstance("petclinic:type=Cache,name=" + cache.getName()));
+        } catch (MalformedObjectNameException ex) {
+            throw new IllegalArgumentException("Cache name '" + cache.getName() + "' is not valid in a JMX name", ex);
+        }
+    }
+
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2002-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * {@link DataSource} proxy recording, in a {@link SqlStatistics}, the time spent waiting for each connection of the
+ * target pool and, for every statement executed on those connections, its SQL, number of bound parameters,
+ * execution time and fetched rows. Connections, statements and result sets are wrapped in JDK dynamic proxies, so
+ * the JDBC, JPA and Spring Data JPA repositories are all measured the same way.
+ */
+public class InstrumentedDataSource extends DelegatingDataSource {
+
+    private final SqlStatistics statistics;
+
+    public InstrumentedDataSource(DataSource targetDataSource, SqlStatistics statistics) {
+        super(targetDataSource);
+        this.statistics = statistics;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = super.getConnection();
+        this.statistics.recordConnectionWait(System.nanoTime() - start);
+        return proxy(Connection.class, new ConnectionHandler(connection));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = super.getConnection(username, password);
+        this.statistics.recordConnectionWait(System.nanoTime() - start);
+        return proxy(Connection.class, new ConnectionHandler(connection));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(InstrumentedDataSource.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getTargetException();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "createStatement":
+                    return proxy(Statement.class, new StatementHandler(
+                        (Statement) InstrumentedDataSource.invoke(this.target, method, args), null, (Connection) proxy));
+                case "prepareStatement":
+                    return proxy(PreparedStatement.class, new StatementHandler(
+                        (Statement) InstrumentedDataSource.invoke(this.target, method, args), (String) args[0],
+                        (Connection) proxy));
+                case "prepareCall":
+                    return proxy(CallableStatement.class, new StatementHandler(
+                        (Statement) InstrumentedDataSource.invoke(this.target, method, args), (String) args[0],
+                        (Connection) proxy));
+                default:
+                    return InstrumentedDataSource.invoke(this.target, method, args);
+            }
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+
+        private final Connection connection;
+
+        // the SQL of a prepared statement, or the last one added to the batch of a plain statement
+        private String sql;
+
+        private SqlStatistics.StatementStatistics statement;
+
+        private int parameterCount;
+
+        private StatementHandler(Statement target, String sql, Connection connection) {
+            this.target = target;
+            this.connection = connection;
+            this.sql = sql;
+            this.statement = sql != null ? statistics.statement(sql) : null;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                if (args != null && args.length > 0 && args[0] instanceof String) {
+                    this.sql = (String) args[0];
+                    this.statement = statistics.statement(this.sql);
+                }
+                if (this.statement == null) {
+                    return InstrumentedDataSource.invoke(this.target, method, args);
+                }
+                long start = System.nanoTime();
+                try {
+                    return wrap(InstrumentedDataSource.invoke(this.target, method, args), proxy);
+                } finally {
+                    statistics.recordExecution(this.statement, this.sql, this.parameterCount, System.nanoTime() - start);
+                }
+            }
+            switch (name) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "getConnection":
+                    return this.connection;
+                case "getResultSet":
+                    return wrap(InstrumentedDataSource.invoke(this.target, method, args), proxy);
+                case "addBatch":
+                    if (args != null && args.length > 0) {
+                        this.sql = (String) args[0];
+                        this.statement = statistics.statement(this.sql);
+                    }
+                    break;
+                case "clearParameters":
+                    this.parameterCount = 0;
+                    break;
+                default:
+                    // setString(int, String), setNull(int, int), ...: parameters are numbered from 1
+                    if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                        this.parameterCount = Math.max(this.parameterCount, (Integer) args[0]);
+                    }
+            }
+            return InstrumentedDataSource.invoke(this.target, method, args);
+        }
+
+        private Object wrap(Object result, Object statementProxy) {
+            if (result instanceof ResultSet && this.statement != null) {
+                return proxy(ResultSet.class, new ResultSetHandler((ResultSet) result, this.statement, statementProxy));
+            }
+            return result;
+        }
+    }
+
+    private static final class ResultSetHandler implements InvocationHandler {
+
+        private final ResultSet target;
+
+        private final SqlStatistics.StatementStatistics statement;
+
+        private final Object statementProxy;
+
+        private ResultSetHandler(ResultSet target, SqlStatistics.StatementStatistics statement, Object statementProxy) {
+            this.target = target;
+            this.statement = statement;
+            this.statementProxy = statementProxy;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "getStatement":
+                    return this.statementProxy;
+                case "next":
+                    Object hasRow = InstrumentedDataSource.invoke(this.target, method, args);
+                    if (Boolean.TRUE.equals(hasRow)) {
+                        this.statement.addRow();
+                    }
+                    return hasRow;
+                default:
+                    return InstrumentedDataSource.invoke(this.target, method, args);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2002-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.util;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * {@link ThreadPoolTaskExecutor} exposing its pool and queue statistics through JMX, so that the sizing of the
+ * executor running asynchronous <code>ClinicService</code> calls can be checked against the database connection
+ * pool with any JMX console such as the jConsole.
+ * <p>
+ * Tasks submitted while all threads are busy and the queue is full are rejected and counted; web requests whose call
+ * is rejected are answered with a 503 by the <code>ServiceUnavailableExceptionResolver</code>.
+ */
+@ManagedResource("petclinic:type=ClinicServiceExecutor")
+public class MonitoredThreadPoolTaskExecutor extends ThreadPoolTaskExecutor {
+
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    public MonitoredThreadPoolTaskExecutor() {
+        final RejectedExecutionHandler abortPolicy = new ThreadPoolExecutor.AbortPolicy();
+        setRejectedExecutionHandler((task, executor) -> {
+            this.rejectedCount.incrementAndGet();
+            abortPolicy.rejectedExecution(task, executor);
+        });
+    }
+
+    @ManagedAttribute
+    public int getMaximumPoolSize() {
+        return getMaxPoolSize();
+    }
+
+    @ManagedAttribute
+    public int getCurrentPoolSize() {
+        return getPoolSize();
+    }
+
+    @ManagedAttribute
+    public int getActiveThreadCount() {
+        return getActiveCount();
+    }
+
+    @ManagedAttribute
+    public int getLargestPoolSize() {
+        return getThreadPoolExecutor().getLargestPoolSize();
+    }
+
+    @ManagedAttribute
+    public int getQueueSize() {
+        return getThreadPoolExecutor().getQueue().size();
+    }
+
+    @ManagedAttribute
+    public long getCompletedTaskCount() {
+        return getThreadPoolExecutor().getCompletedTaskCount();
+    }
+
+    @ManagedAttribute
+    public long getRejectedTaskCount() {
+        return this.rejectedCount.get();
+    }
+
+}
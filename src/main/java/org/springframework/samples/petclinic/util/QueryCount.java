@@ -0,0 +1,106 @@
+/*
+ * Copyright 2002-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.util;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements executed by the current thread, through an {@link InstrumentedDataSource}, between
+ * {@link #open(String)} and {@link #close()}. Statements are counted per normalized statement (see
+ * {@link SqlStatistics}), so that the same query repeated with different values shows up as one entry.
+ * <p>
+ * Counts are confined to the thread that opened them. A count opened while another one is open on the same thread
+ * also adds to the outer one: a count opened by a test sees the statements of the service calls made by the test.
+ */
+public final class QueryCount implements AutoCloseable {
+
+    private static final ThreadLocal<QueryCount> CURRENT = new ThreadLocal<>();
+
+    private final String operation;
+
+    private final QueryCount outer;
+
+    private final Map<String, Integer> statementCounts = new LinkedHashMap<>();
+
+    private int statementCount;
+
+    private QueryCount(String operation, QueryCount outer) {
+        this.operation = operation;
+        this.outer = outer;
+    }
+
+    /**
+     * Start counting the statements of the current thread; must be closed by the same thread.
+     *
+     * @param operation describes what is counted, e.g. the service method called
+     */
+    public static QueryCount open(String operation) {
+        QueryCount count = new QueryCount(operation, CURRENT.get());
+        CURRENT.set(count);
+        return count;
+    }
+
+    /**
+     * Add one execution of the given normalized statement to the counts open on the current thread.
+     */
+    static void record(String sql) {
+        for (QueryCount count = CURRENT.get(); count != null; count = count.outer) {
+            count.statementCount++;
+            count.statementCounts.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    public String getOperation() {
+        return this.operation;
+    }
+
+    public int getStatementCount() {
+        return this.statementCount;
+    }
+
+    /**
+     * @return the number of executions of each normalized statement, in order of first execution
+     */
+    public Map<String, Integer> getStatementCounts() {
+        return Collections.unmodifiableMap(this.statementCounts);
+    }
+
+    /**
+     * Discard the statements counted so far, e.g. those of the setup of a test.
+     */
+    public void reset() {
+        this.statementCount = 0;
+        this.statementCounts.clear();
+    }
+
+    /**
+     * Stop counting; the counts remain readable.
+     */
+    @Override
+    public void close() {
+        if (CURRENT.get() != this) {
+            throw new IllegalStateException("Query count of " + this.operation + " is not the innermost one open");
+        }
+        if (this.outer != null) {
+            CURRENT.set(this.outer);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2002-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.util;
+
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+/**
+ * Aspect counting, with a {@link QueryCount}, the SQL statements issued by each call to the
+ * {@link org.springframework.samples.petclinic.service.ClinicService}, i.e. by each logical operation. A call
+ * executing the same normalized statement more than the repeated statement threshold logs a warning: this is the
+ * signature of an N+1 select, such as loading the pets of each owner of a search result one owner at a time.
+ * <p>
+ * The aspect runs outside the transaction of the call, so that the statements flushed on commit are counted too.
+ */
+@ManagedResource("petclinic:type=QueryCountMonitor")
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class QueryCountMonitor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(QueryCountMonitor.class);
+
+    private volatile boolean enabled = true;
+
+    private volatile int repeatedStatementThreshold;
+
+    private final LongAdder operationCount = new LongAdder();
+
+    private final LongAdder statementCount = new LongAdder();
+
+    private final LongAdder warningCount = new LongAdder();
+
+    public QueryCountMonitor(int repeatedStatementThreshold) {
+        this.repeatedStatementThreshold = repeatedStatementThreshold;
+    }
+
+    @ManagedAttribute
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    @ManagedAttribute
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @ManagedAttribute(description = "Executions of one statement by a single operation above which a warning is logged")
+    public int getRepeatedStatementThreshold() {
+        return this.repeatedStatementThreshold;
+    }
+
+    @ManagedAttribute
+    public void setRepeatedStatementThreshold(int repeatedStatementThreshold) {
+        this.repeatedStatementThreshold = repeatedStatementThreshold;
+    }
+
+    @ManagedAttribute
+    public long getOperationCount() {
+        return this.operationCount.sum();
+    }
+
+    @ManagedAttribute(description = "Average number of SQL statements per operation")
+    public double getAverageStatementCount() {
+        long operations = this.operationCount.sum();
+        return operations > 0 ? (double) this.statementCount.sum() / operations : 0;
+    }
+
+    @ManagedAttribute(description = "Number of operations which repeated a statement above the threshold")
+    public long getWarningCount() {
+        return this.warningCount.sum();
+    }
+
+    @ManagedOperation
+    public void reset() {
+        this.operationCount.reset();
+        this.statementCount.reset();
+        this.warningCount.reset();
+    }
+
+    @Around("execution(* org.springframework.samples.petclinic.service.ClinicService.*(..))")
+    public Object count(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!this.enabled) {
+            return joinPoint.proceed();
+        }
+        QueryCount count = QueryCount.open(joinPoint.getSignature().toShortString());
+        try {
+            return joinPoint.proceed();
+        } finally {
+            count.close();
+            check(count);
+        }
+    }
+
+    private void check(QueryCount count) {
+        this.operationCount.increment();
+        this.statementCount.add(count.getStatementCount());
+        boolean repeated = false;
+        for (Map.Entry<String, Integer> entry : count.getStatementCounts().entrySet()) {
+            if (entry.getValue() > this.repeatedStatementThreshold) {
+                repeated = true;
+                LOG.warn("{} executed the same statement {} times ({} statements in total), possible N+1 select: {}",
+                    count.getOperation(), entry.getValue(), count.getStatementCount(), entry.getKey());
+            }
+        }
+        if (repeated) {
+            this.warningCount.increment();
+        }
+    }
+
+}
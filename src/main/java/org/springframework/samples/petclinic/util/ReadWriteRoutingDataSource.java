@@ -0,0 +1,134 @@
+/*
+ * Copyright 2002-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.util;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * DataSource that sends read-only transactions to a replica and everything else to the primary database.
+ * <p>
+ * The routing decision is taken when a connection is requested, using the read-only flag of the current
+ * transaction; this DataSource must therefore be wrapped in a {@link LazyConnectionDataSourceProxy} so that the
+ * physical connection is only fetched once the transaction definition has been exposed.
+ * <p>
+ * Two fallback rules send read-only transactions to the primary anyway:
+ * <ul>
+ * <li>for <code>maxLagMillis</code> after the completion of a write transaction <i>of the same client</i>, as
+ * recorded in the {@link WriteMarker} bound to the thread, so that clients read their own writes even if the
+ * replica has not caught up yet. Writes of other clients do not affect the routing: they may see them up to the
+ * replication lag late. The lag itself is not measured; <code>maxLagMillis</code> is an upper bound assumed from
+ * the replication setup;</li>
+ * <li>for <code>retryMillis</code> after the replica failed to hand out a connection.</li>
+ * </ul>
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    private static final String PRIMARY = "primary";
+
+    private static final String REPLICA = "replica";
+
+    private final DataSource primary;
+
+    private final DataSource replica;
+
+    private final long maxLagMillis;
+
+    private final long retryMillis;
+
+    private volatile long replicaDownUntilMillis;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, long maxLagMillis, long retryMillis) {
+        this.primary = primary;
+        this.replica = replica;
+        this.maxLagMillis = maxLagMillis;
+        this.retryMillis = retryMillis;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        targets.put(REPLICA, replica);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        WriteMarker marker = WriteMarker.current();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (marker != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        marker.writeCompleted();
+                    }
+                });
+            }
+            return PRIMARY;
+        }
+        long now = System.currentTimeMillis();
+        boolean recentWrite = marker != null && now - marker.getLastWriteMillis() < this.maxLagMillis;
+        if (recentWrite || now < this.replicaDownUntilMillis) {
+            return PRIMARY;
+        }
+        return REPLICA;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        DataSource target = determineTargetDataSource();
+        if (target == this.replica) {
+            try {
+                return this.replica.getConnection();
+            } catch (SQLException ex) {
+                replicaFailed(ex);
+                return this.primary.getConnection();
+            }
+        }
+        return target.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        DataSource target = determineTargetDataSource();
+        if (target == this.replica) {
+            try {
+                return this.replica.getConnection(username, password);
+            } catch (SQLException ex) {
+                replicaFailed(ex);
+                return this.primary.getConnection(username, password);
+            }
+        }
+        return target.getConnection(username, password);
+    }
+
+    private void replicaFailed(SQLException ex) {
+        this.replicaDownUntilMillis = System.currentTimeMillis() + this.retryMillis;
+        LOG.warn("Replica unavailable, routing read-only transactions to the primary for the next {} ms", this.retryMillis, ex);
+    }
+
+}
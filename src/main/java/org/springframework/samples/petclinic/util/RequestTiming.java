@@ -0,0 +1,149 @@
+/*
+ * Copyright 2002-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.util;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Timings of one HTTP request: total time, time spent in the database (statement executions and connection waits
+ * recorded by {@link SqlStatistics}), in the handler and in rendering the response. The timing of the request being
+ * processed is bound to the current thread; {@link #propagate(Runnable)} binds it to the threads of an executor
+ * working for the request, so that database time spent there (e.g. by the <code>AsyncClinicService</code>) is
+ * included.
+ */
+public final class RequestTiming {
+
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+
+    private final LongAdder databaseNanos = new LongAdder();
+
+    // set on the request threads, which may differ between the dispatches of an asynchronous request
+    private volatile long handlerStartNanos;
+
+    private volatile long handlerEndNanos;
+
+    private volatile long renderEndNanos;
+
+    private volatile long endNanos;
+
+    /**
+     * @return the timing bound to the current thread, or <code>null</code> outside of a timed request
+     */
+    public static RequestTiming current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Bind the given timing to the current thread, or unbind the current one if <code>null</code>.
+     */
+    public static void setCurrent(RequestTiming timing) {
+        if (timing != null) {
+            CURRENT.set(timing);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * @return the given task, running with the timing bound to the calling thread, if any
+     */
+    public static Runnable propagate(Runnable task) {
+        RequestTiming timing = CURRENT.get();
+        if (timing == null) {
+            return task;
+        }
+        return () -> {
+            RequestTiming previous = CURRENT.get();
+            CURRENT.set(timing);
+            try {
+                task.run();
+            } finally {
+                setCurrent(previous);
+            }
+        };
+    }
+
+    static void recordDatabaseTime(long nanos) {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.databaseNanos.add(nanos);
+        }
+    }
+
+    /**
+     * The handler is called; only the first call counts, an asynchronous request calling it again on dispatch.
+     */
+    public void handlerStarted() {
+        if (this.handlerStartNanos == 0) {
+            this.handlerStartNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * The handler result is ready to be rendered, either as a view or as a response body.
+     */
+    public void handlerCompleted() {
+        if (this.handlerEndNanos == 0) {
+            this.handlerEndNanos = System.nanoTime();
+        }
+    }
+
+    public void renderCompleted() {
+        handlerCompleted();
+        this.renderEndNanos = System.nanoTime();
+    }
+
+    public void completed() {
+        this.endNanos = System.nanoTime();
+    }
+
+    public long getTotalNanos() {
+        return (this.endNanos != 0 ? this.endNanos : System.nanoTime()) - this.startNanos;
+    }
+
+    public long getDatabaseNanos() {
+        return this.databaseNanos.sum();
+    }
+
+    /**
+     * @return the time spent in the handler, database time excluded
+     */
+    public long getControllerNanos() {
+        if (this.handlerStartNanos == 0 || this.handlerEndNanos == 0) {
+            return 0;
+        }
+        return Math.max(0, this.handlerEndNanos - this.handlerStartNanos - getDatabaseNanos());
+    }
+
+    public long getRenderNanos() {
+        if (this.handlerEndNanos == 0 || this.renderEndNanos == 0) {
+            return 0;
+        }
+        return this.renderEndNanos - this.handlerEndNanos;
+    }
+
+    /**
+     * @return the timings as the value of a <code>Server-Timing</code> response header, in milliseconds
+     */
+    public String toServerTiming() {
+        return String.format(Locale.ROOT, "db;dur=%.1f, controller;dur=%.1f, render;dur=%.1f, total;dur=%.1f",
+            getDatabaseNanos() / 1e6, getControllerNanos() / 1e6, getRenderNanos() / 1e6, getTotalNanos() / 1e6);
+    }
+
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2002-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+import javax.management.openmbean.CompositeDataSupport;
+import javax.management.openmbean.CompositeType;
+import javax.management.openmbean.OpenDataException;
+import javax.management.openmbean.OpenType;
+import javax.management.openmbean.SimpleType;
+import javax.management.openmbean.TabularData;
+import javax.management.openmbean.TabularDataSupport;
+import javax.management.openmbean.TabularType;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+/**
+ * Aggregates the SQL statements executed through an {@link InstrumentedDataSource}, per normalized statement:
+ * literals are replaced by <code>?</code> and <code>IN</code> lists collapsed, so that executions differing only by
+ * their values share one entry. Each entry counts executions, execution time, fetched rows and bound parameters;
+ * the time spent waiting for pooled connections is aggregated separately.
+ * <p>
+ * Statements slower than the slow query threshold are logged at WARN level by the
+ * <code>org.springframework.samples.petclinic.util.SqlStatistics</code> logger. Statistics and threshold are exposed
+ * through JMX; no lock is taken while recording.
+ */
+@ManagedResource("petclinic:type=SqlStatistics")
+public class SqlStatistics {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SqlStatistics.class);
+
+    /**
+     * Maximum number of distinct normalized statements tracked; further statements share one entry.
+     */
+    private static final int MAX_STATEMENTS = 1000;
+
+    private static final String OTHER_STATEMENTS = "(other statements)";
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+
+    private static final Pattern NUMERIC_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final String[] STATISTICS_ITEMS =
+        {"sql", "executions", "meanMicros", "maxMicros", "totalMillis", "rows", "parameters"};
+
+    private static final TabularType STATISTICS_TYPE;
+
+    static {
+        try {
+            OpenType<?>[] itemTypes = {SimpleType.STRING, SimpleType.LONG, SimpleType.LONG, SimpleType.LONG,
+                SimpleType.LONG, SimpleType.LONG, SimpleType.LONG};
+            CompositeType rowType = new CompositeType("StatementStatistics", "Executions of one normalized statement",
+                STATISTICS_ITEMS, STATISTICS_ITEMS, itemTypes);
+            STATISTICS_TYPE = new TabularType("StatementStatisticsTable", "Executions per normalized statement",
+                rowType, new String[]{"sql"});
+        } catch (OpenDataException ex) {
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
+
+    private final ConcurrentMap<String, StatementStatistics> statements = new ConcurrentHashMap<>();
+
+    // entries by raw SQL, so that prepared statements are only normalized once
+    private final ConcurrentMap<String, StatementStatistics> statementsBySql = new ConcurrentHashMap<>();
+
+    private final LongAdder connectionCount = new LongAdder();
+
+    private final LongAdder connectionWaitNanos = new LongAdder();
+
+    private final LongAccumulator maxConnectionWaitNanos = new LongAccumulator(Math::max, 0);
+
+    private final LongAdder slowStatementCount = new LongAdder();
+
+    private volatile long slowQueryThresholdMillis;
+
+    public SqlStatistics(long slowQueryThresholdMillis) {
+        this.slowQueryThresholdMillis = slowQueryThresholdMillis;
+    }
+
+    /**
+     * @return the entry of the given SQL statement, to which its executions and fetched rows are added
+     */
+    public StatementStatistics statement(String sql) {
+        StatementStatistics statistics = this.statementsBySql.get(sql);
+        if (statistics == null) {
+            String normalized = normalize(sql);
+            statistics = this.statements.get(normalized);
+            if (statistics == null) {
+                if (this.statements.size() >= MAX_STATEMENTS) {
+                    normalized = OTHER_STATEMENTS;
+                }
+                statistics = this.statements.computeIfAbsent(normalized, StatementStatistics::new);
+            }
+            if (this.statementsBySql.size() < MAX_STATEMENTS) {
+                this.statementsBySql.put(sql, statistics);
+            }
+        }
+        return statistics;
+    }
+
+    /**
+     * Record one execution of a statement, logging it if it exceeds the slow query threshold. The execution is also
+     * added to the {@link QueryCount QueryCounts} open on the current thread, and its time to the
+     * {@link RequestTiming} of the current request.
+     */
+    public void recordExecution(StatementStatistics statement, String sql, int parameterCount, long nanos) {
+        QueryCount.record(statement.sql);
+        RequestTiming.recordDatabaseTime(nanos);
+        statement.executions.increment();
+        statement.totalNanos.add(nanos);
+        statement.maxNanos.accumulate(nanos);
+        statement.parameters.add(parameterCount);
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        if (millis >= this.slowQueryThresholdMillis) {
+            this.slowStatementCount.increment();
+            LOG.warn("Slow SQL statement ({} ms, {} parameters): {}", millis, parameterCount, sql);
+        }
+    }
+
+    public void recordConnectionWait(long nanos) {
+        RequestTiming.recordDatabaseTime(nanos);
+        this.connectionCount.increment();
+        this.connectionWaitNanos.add(nanos);
+        this.maxConnectionWaitNanos.accumulate(nanos);
+    }
+
+    @ManagedAttribute
+    public long getSlowQueryThresholdMillis() {
+        return this.slowQueryThresholdMillis;
+    }
+
+    @ManagedAttribute
+    public void setSlowQueryThresholdMillis(long slowQueryThresholdMillis) {
+        this.slowQueryThresholdMillis = slowQueryThresholdMillis;
+    }
+
+    @ManagedAttribute
+    public long getSlowStatementCount() {
+        return this.slowStatementCount.sum();
+    }
+
+    @ManagedAttribute
+    public long getConnectionCount() {
+        return this.connectionCount.sum();
+    }
+
+    @ManagedAttribute(description = "Average time waited for a pooled connection, in microseconds")
+    public long getAverageConnectionWaitMicros() {
+        long connections = this.connectionCount.sum();
+        return connections > 0 ? TimeUnit.NANOSECONDS.toMicros(this.connectionWaitNanos.sum() / connections) : 0;
+    }
+
+    @ManagedAttribute(description = "Longest time waited for a pooled connection, in microseconds")
+    public long getMaxConnectionWaitMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(this.maxConnectionWaitNanos.get());
+    }
+
+    @ManagedAttribute(description = "Executions, time, fetched rows and bound parameters per normalized statement")
+    public TabularData getStatementStatistics() throws OpenDataException {
+        TabularDataSupport table = new TabularDataSupport(STATISTICS_TYPE);
+        for (Map.Entry<String, StatementStatistics> entry : this.statements.entrySet()) {
+            StatementStatistics statistics = entry.getValue();
+            long executions = statistics.executions.sum();
+            long totalNanos = statistics.totalNanos.sum();
+            table.put(new CompositeDataSupport(STATISTICS_TYPE.getRowType(), STATISTICS_ITEMS, new Object[]{
+                entry.getKey(), executions,
+                executions > 0 ? TimeUnit.NANOSECONDS.toMicros(totalNanos / executions) : 0L,
+                TimeUnit.NANOSECONDS.toMicros(statistics.maxNanos.get()), TimeUnit.NANOSECONDS.toMillis(totalNanos),
+                statistics.rows.sum(), statistics.parameters.sum()}));
+        }
+        return table;
+    }
+
+    @ManagedOperation
+    public void reset() {
+        this.statementsBySql.clear();
+        this.statements.clear();
+        this.connectionCount.reset();
+        this.connectionWaitNanos.reset();
+        this.maxConnectionWaitNanos.reset();
+        this.slowStatementCount.reset();
+    }
+
+    static String normalize(String sql) {
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMERIC_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = IN_LIST.matcher(normalized).replaceAll("(?)");
+        return WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+    }
+
+    /**
+     * Counters of one normalized statement.
+     */
+    public static final class StatementStatistics {
+
+        private final String sql;
+
+        private final LongAdder executions = new LongAdder();
+
+        private final LongAdder totalNanos = new LongAdder();
+
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        private final LongAdder rows = new LongAdder();
+
+        private final LongAdder parameters = new LongAdder();
+
+        private StatementStatistics(String sql) {
+            this.sql = sql;
+        }
+
+        public void addRow() {
+            this.rows.increment();
+        }
+    }
+
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2002-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.util;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.sf.ehcache.Ehcache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.util.SerializationUtils;
+
+/**
+ * {@link CacheManager} layering a small, fast in-heap cache (L1, typically Caffeine) in front of an optional larger
+ * one (L2, typically Ehcache). Reads are served by L1 and fall through to L2, whose hits are promoted to L1; writes
+ * go to both tiers.
+ * <p>
+ * A promotion may race with a write: a reader can get the old value from L2 just before a put or evict, and store it
+ * in L1 just after. Every put, evict and clear therefore bumps a generation counter of the cache between its L2 and
+ * L1 updates, and a reader that sees the generation change while it promotes removes the entry it just stored in L1.
+ * <p>
+ * Caches whose names are listed as copied keep their values serialized in L1 and hand out a fresh copy on every read,
+ * the equivalent of Ehcache's <code>copyOnRead</code>/<code>copyOnWrite</code>, so callers may modify what they get.
+ * A value read from an L2 region that already copies on read is handed out as is.
+ */
+public class TwoTierCacheManager implements CacheManager {
+
+    private final CacheManager l1;
+
+    private final CacheManager l2;
+
+    private final Set<String> copiedCacheNames;
+
+    private final ConcurrentMap<String, Cache> caches = new ConcurrentHashMap<>();
+
+    /**
+     * @param l1               the first-level cache manager, consulted first
+     * @param l2               the second-level cache manager, or <code>null</code> for a single tier
+     * @param copiedCacheNames names of the caches whose values are copied in and out of L1
+     */
+    public TwoTierCacheManager(CacheManager l1, CacheManager l2, Collection<String> copiedCacheNames) {
+        this.l1 = l1;
+        this.l2 = l2;
+        this.copiedCacheNames = new HashSet<>(copiedCacheNames);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = this.caches.get(name);
+        if (cache == null) {
+            Cache l1Cache = this.l1.getCache(name);
+            if (l1Cache == null) {
+                return null;
+            }
+            // a cache not configured in L2 is only held in L1
+            Cache l2Cache = this.l2 != null ? this.l2.getCache(name) : null;
+            cache = new TwoTierCache(l1Cache, l2Cache, this.copiedCacheNames.contains(name), copiesOnRead(l2Cache));
+            Cache existing = this.caches.putIfAbsent(name, cache);
+            if (existing != null) {
+                cache = existing;
+            }
+        }
+        return cache;
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        Set<String> names = new LinkedHashSet<>(this.l1.getCacheNames());
+        if (this.l2 != null) {
+            names.addAll(this.l2.getCacheNames());
+        }
+        return names;
+    }
+
+    private static boolean copiesOnRead(Cache cache) {
+        return cache != null && cache.getNativeCache() instanceof Ehcache
+            && ((Ehcache) cache.getNativeCache()).getCacheConfiguration().isCopyOnRead();
+    }
+
+    private static final class TwoTierCache implements Cache {
+
+        private final Cache l1;
+
+        private final Cache l2;
+
+        private final boolean copyValues;
+
+        private final boolean l2CopiesOnRead;
+
+        // incremented by every write between its L2 and its L1 update, see promote()
+        private final AtomicLong generation = new AtomicLong();
+
+        private TwoTierCache(Cache l1, Cache l2, boolean copyValues, boolean l2CopiesOnRead) {
+            this.l1 = l1;
+            this.l2 = l2;
+            this.copyValues = copyValues;
+            this.l2CopiesOnRead = l2CopiesOnRead;
+        }
+
+        @Override
+        public String getName() {
+            return this.l1.getName();
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return this.l1.getNativeCache();
+        }
+
+        @Override
+        public ValueWrapper get(Object key) {
+            ValueWrapper l1Value = this.l1.get(key);
+            if (l1Value != null) {
+                return new SimpleValueWrapper(fromL1(l1Value.get()));
+            }
+            if (this.l2 == null) {
+                return null;
+            }
+            long generationBeforeRead = this.generation.get();
+            ValueWrapper l2Value = this.l2.get(key);
+            if (l2Value == null) {
+                return null;
+            }
+            Object value = l2Value.get();
+            Object stored = toL1(value);
+            promote(key, stored, generationBeforeRead);
+            // the value serialized for L1 is the one copy needed when L2 hands out shared instances
+            return new SimpleValueWrapper(this.copyValues && !this.l2CopiesOnRead ? fromL1(stored) : value);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T get(Object key, Class<T> type) {
+            ValueWrapper wrapper = get(key);
+            Object value = wrapper != null ? wrapper.get() : null;
+            if (value != null && type != null && !type.isInstance(value)) {
+                throw new IllegalStateException(
+                    "Cached value is not of required type [" + type.getName() + "]: " + value);
+            }
+            return (T) value;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            ValueWrapper wrapper = get(key);
+            if (wrapper != null) {
+                return (T) wrapper.get();
+            }
+            T value;
+            try {
+                value = valueLoader.call();
+            } catch (Throwable ex) {
+                throw new ValueRetrievalException(key, valueLoader, ex);
+            }
+            put(key, value);
+            return value;
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            if (this.l2 != null) {
+                this.l2.put(key, value);
+                this.generation.incrementAndGet();
+            }
+            this.l1.put(key, toL1(value));
+        }
+
+        /**
+         * Not atomic across the two tiers.
+         */
+        @Override
+        public ValueWrapper putIfAbsent(Object key, Object value) {
+            ValueWrapper existing = get(key);
+            if (existing == null) {
+                put(key, value);
+            }
+            return existing;
+        }
+
+        @Override
+        public void evict(Object key) {
+            if (this.l2 != null) {
+                this.l2.evict(key);
+                this.generation.incrementAndGet();
+            }
+            this.l1.evict(key);
+        }
+
+        @Override
+        public void clear() {
+            if (this.l2 != null) {
+                this.l2.clear();
+                this.generation.incrementAndGet();
+            }
+            this.l1.clear();
+        }
+
+        /**
+         * Store a value read from L2 in L1, unless a write happened since the read. A write updates L2, then bumps
+         * the generation, then updates L1: if the entry is stored in L1 after the writer's L1 update, the
+         * generation has already changed when it is checked here, and the entry is removed again.
+         */
+        private void promote(Object key, Object stored, long generationBeforeRead) {
+            this.l1.put(key, stored);
+            if (this.generation.get() != generationBeforeRead) {
+                this.l1.evict(key);
+            }
+        }
+
+        private Object toL1(Object value) {
+            return this.copyValues && value != null ? SerializationUtils.serialize(value) : value;
+        }
+
+        private Object fromL1(Object value) {
+            return this.copyValues && value != null ? SerializationUtils.deserialize((byte[]) value) : value;
+        }
+    }
+
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2002-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.util;
+
+/**
+ * Time of the last write transaction of the client being served, bound to the current thread. The
+ * {@link ReadWriteRoutingDataSource} updates it when a write transaction completes and sends the read-only
+ * transactions of that client, and of that client only, to the primary while the replica may not have caught up.
+ * <p>
+ * The marker is carried between the requests of a client by the <code>ReadYourWritesInterceptor</code>, in a cookie;
+ * {@link #propagate(Runnable)} binds it to the threads of an executor working for the request.
+ */
+public final class WriteMarker {
+
+    private static final ThreadLocal<WriteMarker> CURRENT = new ThreadLocal<>();
+
+    private volatile long lastWriteMillis;
+
+    /**
+     * @param lastWriteMillis time of the last write of the client, or 0 if unknown
+     */
+    public WriteMarker(long lastWriteMillis) {
+        this.lastWriteMillis = lastWriteMillis;
+    }
+
+    /**
+     * @return the marker bound to the current thread, or <code>null</code> outside of a client request
+     */
+    public static WriteMarker current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Bind the given marker to the current thread, or unbind the current one if <code>null</code>.
+     */
+    public static void setCurrent(WriteMarker marker) {
+        if (marker != null) {
+            CURRENT.set(marker);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * @return the given task, running with the marker bound to the calling thread, if any
+     */
+    public static Runnable propagate(Runnable task) {
+        WriteMarker marker = CURRENT.get();
+        if (marker == null) {
+            return task;
+        }
+        return () -> {
+            WriteMarker previous = CURRENT.get();
+            CURRENT.set(marker);
+            try {
+                task.run();
+            } finally {
+                setCurrent(previous);
+            }
+        };
+    }
+
+    public long getLastWriteMillis() {
+        return this.lastWriteMillis;
+    }
+
+    void writeCompleted() {
+        this.lastWriteMillis = System.currentTimeMillis();
+    }
+
+}
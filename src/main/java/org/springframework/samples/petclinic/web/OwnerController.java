@@ -15,13 +15,22 @@
  */
 package org.springframework.samples.petclinic.web;
 
-import java.util.Collection;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.samples.petclinic.model.Owner;
+import org.springframework.samples.petclinic.model.OwnerName;
+import org.springframework.samples.petclinic.model.OwnerSummary;
+import org.springframework.samples.petclinic.model.Pet;
+import org.springframework.samples.petclinic.model.Visit;
+import org.springframework.samples.petclinic.service.AsyncClinicService;
 import org.springframework.samples.petclinic.service.ClinicService;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -31,6 +40,8 @@ import org.springframework.web.bind.annotation.InitBinder;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.servlet.ModelAndView;
 
 /**
@@ -43,12 +54,17 @@ import org.springframework.web.servlet.ModelAndView;
 public class OwnerController {
 
     private static final String VIEWS_OWNER_CREATE_OR_UPDATE_FORM = "owners/createOrUpdateOwnerForm";
+    private static final int OWNERS_PAGE_SIZE = 20;
+
+    private static final int AUTOCOMPLETE_SIZE = 10;
     private final ClinicService clinicService;
+    private final AsyncClinicService asyncClinicService;
 
 
     @Autowired
-    public OwnerController(ClinicService clinicService) {
+    public OwnerController(ClinicService clinicService, AsyncClinicService asyncClinicService) {
         this.clinicService = clinicService;
+        this.asyncClinicService = asyncClinicService;
     }
 
     @InitBinder
@@ -79,29 +95,110 @@ public class OwnerController {
         return "owners/findOwners";
     }
 
+    /**
+     * Pages through the owners matching the search. The <code>afterName</code>/<code>afterId</code> and
+     * <code>beforeName</code>/<code>beforeId</code> request parameters carry the keyset of the last (respectively
+     * first) owner of the page the user navigated from.
+     * <p>
+     * The search runs asynchronously, releasing the servlet thread while the database is queried.
+     */
     @RequestMapping(value = "/owners", method = RequestMethod.GET)
-    public String processFindForm(Owner owner, BindingResult result, Map<String, Object> model) {
+    public CompletableFuture<String> processFindForm(Owner owner, BindingResult result,
+                                  @RequestParam(value = "afterName", required = false) String afterName,
+                                  @RequestParam(value = "afterId", required = false) Integer afterId,
+                                  @RequestParam(value = "beforeName", required = false) String beforeName,
+                                  @RequestParam(value = "beforeId", required = false) Integer beforeId,
+                                  Map<String, Object> model) {
 
         // allow parameterless GET request for /owners to return all records
         if (owner.getLastName() == null) {
             owner.setLastName(""); // empty string signifies broadest possible search
         }
 
-        // find owners by last name
-        Collection<Owner> results = this.clinicService.findOwnerByLastName(owner.getLastName());
-        if (results.isEmpty()) {
-            // no owners found
-            result.rejectValue("lastName", "notFound", "not found");
-            return "owners/findOwners";
-        } else if (results.size() == 1) {
-            // 1 owner found
-            owner = results.iterator().next();
-            return "redirect:/owners/" + owner.getId();
-        } else {
-            // multiple owners found
-            model.put("selections", results);
-            return "owners/ownersList";
+        boolean backward = beforeName != null && beforeId != null;
+        String anchorLastName = backward ? beforeName : afterName;
+        Integer anchorId = backward ? beforeId : (afterName != null ? afterId : null);
+        boolean firstPage = anchorId == null;
+
+        // find owners by last name, one extra row telling whether there is more to page through
+        return this.asyncClinicService.findOwnerPageByLastName(
+            owner.getLastName(), anchorLastName, anchorId, backward, OWNERS_PAGE_SIZE + 1).thenApply(page -> {
+            boolean more = page.size() > OWNERS_PAGE_SIZE;
+            List<OwnerSummary> results = page;
+            if (more) {
+                results = backward ? page.subList(1, page.size()) : page.subList(0, OWNERS_PAGE_SIZE);
+            }
+
+            if (firstPage && results.isEmpty()) {
+                // no owners found
+                result.rejectValue("lastName", "notFound", "not found");
+                return "owners/findOwners";
+            } else if (firstPage && results.size() == 1) {
+                // 1 owner found
+                return "redirect:/owners/" + results.get(0).getId();
+            } else {
+                // multiple owners found
+                model.put("selections", results);
+                model.put("hasPrevious", backward ? more : !firstPage);
+                model.put("hasNext", backward || more);
+                return "owners/ownersList";
+            }
+        });
+    }
+
+    /**
+     * Suggests owners for the last name being typed in the find form, served from the in-memory owner name index.
+     */
+    @RequestMapping(value = "/owners/autocomplete.json", method = RequestMethod.GET)
+    @ResponseBody
+    public List<OwnerName> autocompleteLastName(@RequestParam("lastName") String lastName) {
+        return this.clinicService.findOwnerNamesByLastName(lastName, AUTOCOMPLETE_SIZE);
+    }
+
+    /**
+     * Writes all owners with their pets and visits as CSV, one line per visit (or per pet without visits, or per
+     * owner without pets). Owners are written as they are read, so the export runs in constant memory.
+     */
+    @RequestMapping(value = "/owners/export.csv", method = RequestMethod.GET)
+    public void exportOwners(HttpServletResponse response) throws IOException {
+        response.setContentType("text/csv;charset=UTF-8");
+        response.setHeader("Content-Disposition", "attachment; filename=\"owners.csv\"");
+        PrintWriter writer = response.getWriter();
+        writer.print("ownerId,firstName,lastName,address,city,telephone,petId,petName,birthDate,petType,visitId,visitDate,description\r\n");
+        this.clinicService.exportOwners(owner -> {
+            String ownerColumns = csv(owner.getId(), owner.getFirstName(), owner.getLastName(), owner.getAddress(),
+                owner.getCity(), owner.getTelephone());
+            if (owner.getPets().isEmpty()) {
+                writer.print(ownerColumns + ",,,,,,,\r\n");
+            }
+            for (Pet pet : owner.getPets()) {
+                String petColumns = ownerColumns + "," + csv(pet.getId(), pet.getName(), pet.getBirthDate(),
+                    pet.getType() != null ? pet.getType().getName() : null);
+                if (pet.getVisits().isEmpty()) {
+                    writer.print(petColumns + ",,,\r\n");
+                }
+                for (Visit visit : pet.getVisits()) {
+                    writer.print(petColumns + "," + csv(visit.getId(), visit.getDate(), visit.getDescription()) + "\r\n");
+                }
+            }
+        });
+        writer.flush();
+    }
+
+    private static String csv(Object... values) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            String value = values[i] == null ? "" : values[i].toString();
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                line.append('"').append(value.replace("\"", "\"\"")).append('"');
+            } else {
+                line.append(value);
+            }
         }
+        return line.toString();
     }
 
     @RequestMapping(value = "/owners/{ownerId}/edit", method = RequestMethod.GET)
@@ -126,13 +223,15 @@ public class OwnerController {
      * Custom handler for displaying an owner.
      *
      * @param ownerId the ID of the owner to display
-     * @return a ModelMap with the model attributes for the view
+     * @return a ModelMap with the model attributes for the view, completed once the owner has been loaded
      */
     @RequestMapping("/owners/{ownerId}")
-    public ModelAndView showOwner(@PathVariable("ownerId") int ownerId) {
-        ModelAndView mav = new ModelAndView("owners/ownerDetails");
-        mav.addObject(this.clinicService.findOwnerById(ownerId));
-        return mav;
+    public CompletableFuture<ModelAndView> showOwner(@PathVariable("ownerId") int ownerId) {
+        return this.asyncClinicService.findOwnerWithVisitsById(ownerId).thenApply(owner -> {
+            ModelAndView mav = new ModelAndView("owners/ownerDetails");
+            mav.addObject(owner);
+            return mav;
+        });
     }
 
 }
@@ -17,7 +17,6 @@ package org.springframework.samples.petclinic.web;
 
 
 import java.text.ParseException;
-import java.util.Collection;
 import java.util.Locale;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -54,13 +53,11 @@ public class PetTypeFormatter implements Formatter<PetType> {
 
     @Override
     public PetType parse(String text, Locale locale) throws ParseException {
-        Collection<PetType> findPetTypes = this.clinicService.findPetTypes();
-        for (PetType type : findPetTypes) {
-            if (type.getName().equals(text)) {
-                return type;
-            }
+        PetType type = this.clinicService.findPetTypeByName(text);
+        if (type == null) {
+            throw new ParseException("type not found: " + text, 0);
         }
-        throw new ParseException("type not found: " + text, 0);
+        return type;
     }
 
 }
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2002-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.web;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.samples.petclinic.util.WriteMarker;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.util.WebUtils;
+
+/**
+ * Binds the {@link WriteMarker} of the client to the request thread, read from a cookie, and sends the cookie back
+ * once a request of the client has written to the database. The cookie is added before the view is rendered, so the
+ * redirect following a form submission carries it to the next request.
+ */
+public class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String COOKIE_NAME = "petclinic-last-write";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        WriteMarker.setCurrent(new WriteMarker(lastWriteMillis(request)));
+        return true;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        WriteMarker marker = WriteMarker.current();
+        if (marker != null && marker.getLastWriteMillis() > lastWriteMillis(request)) {
+            Cookie cookie = new Cookie(COOKIE_NAME, String.valueOf(marker.getLastWriteMillis()));
+            String contextPath = request.getContextPath();
+            cookie.setPath(contextPath.isEmpty() ? "/" : contextPath);
+            cookie.setHttpOnly(true);
+            response.addCookie(cookie);
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        WriteMarker.setCurrent(null);
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        // the executor threads got their own reference through WriteMarker.propagate
+        WriteMarker.setCurrent(null);
+    }
+
+    private static long lastWriteMillis(HttpServletRequest request) {
+        Cookie cookie = WebUtils.getCookie(request, COOKIE_NAME);
+        if (cookie == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(cookie.getValue());
+        } catch (NumberFormatException ex) {
+            return 0;
+        }
+    }
+
+}
@@ -0,0 +1,358 @@
+/*
+ * Copyright 2002-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.web;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.openmbean.CompositeDataSupport;
+import javax.management.openmbean.CompositeType;
+import javax.management.openmbean.OpenDataException;
+import javax.management.openmbean.OpenType;
+import javax.management.openmbean.SimpleType;
+import javax.management.openmbean.TabularData;
+import javax.management.openmbean.TabularDataSupport;
+import javax.management.openmbean.TabularType;
+import javax.servlet.FilterChain;
+import javax.servlet.RequestDispatcher;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.samples.petclinic.util.RequestTiming;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.WebUtils;
+
+/**
+ * Filter timing each request with a {@link RequestTiming}, completed by the {@link RequestTimingInterceptor}. The
+ * database, controller, render and total times are sent in a <code>Server-Timing</code> response header, which
+ * browser developer tools display, and aggregated per handler mapping pattern (e.g.
+ * <code>GET /owners/{ownerId}</code>) in the <code>RequestStatistics</code> JMX attribute.
+ * <p/>
+ * Asynchronous requests are timed from the initial dispatch to the end of the asynchronous dispatch rendering the
+ * result. The header is only added after rendering, so the response must not be committed by then:
+ * <ul>
+ * <li>the response buffer is enlarged to <code>responseBufferSize</code> bytes (64 KB by default) before the
+ * request is processed, so typical pages fit; a larger response is committed early and goes without the header;</li>
+ * <li>flushes and closes issued while a view is rendered by a forward or include (e.g. by a JSP) are deferred to the
+ * end of the request. Flushes issued by the handler itself, such as those of a streamed download, go through.</li>
+ * </ul>
+ */
+@ManagedResource("petclinic:type=RequestTiming")
+public class RequestTimingFilter extends OncePerRequestFilter {
+
+    private static final String TIMING_ATTRIBUTE = RequestTiming.class.getName();
+
+    private static final String UNMAPPED = "(unmapped)";
+
+    private static final String[] STATISTICS_ITEMS = {"pattern", "count", "meanTotalMicros", "meanDbMicros",
+        "meanControllerMicros", "meanRenderMicros", "maxTotalMicros"};
+
+    private static final TabularType STATISTICS_TYPE;
+
+    static {
+        try {
+            OpenType<?>[] itemTypes = {SimpleType.STRING, SimpleType.LONG, SimpleType.LONG, SimpleType.LONG,
+                SimpleType.LONG, SimpleType.LONG, SimpleType.LONG};
+            CompositeType rowType = new CompositeType("RequestStatistics", "Timings of the requests of one pattern",
+                STATISTICS_ITEMS, STATISTICS_ITEMS, itemTypes);
+            STATISTICS_TYPE = new TabularType("RequestStatisticsTable", "Timings per request pattern",
+                rowType, new String[]{"pattern"});
+        } catch (OpenDataException ex) {
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
+
+    private final ConcurrentMap<String, PatternStatistics> patternStatistics = new ConcurrentHashMap<>();
+
+    private int responseBufferSize = 64 * 1024;
+
+    /**
+     * Set the minimum size of the response buffer, in bytes, that is the largest response still sent with the
+     * <code>Server-Timing</code> header.
+     */
+    public void setResponseBufferSize(int responseBufferSize) {
+        this.responseBufferSize = responseBufferSize;
+    }
+
+    /**
+     * Also filter the dispatch of asynchronous results, which renders the response.
+     */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        RequestTiming timing = (RequestTiming) request.getAttribute(TIMING_ATTRIBUTE);
+        if (timing == null) {
+            timing = new RequestTiming();
+            request.setAttribute(TIMING_ATTRIBUTE, timing);
+            if (!response.isCommitted() && response.getBufferSize() < this.responseBufferSize) {
+                response.setBufferSize(this.responseBufferSize);
+            }
+        }
+        // the response passed to startAsync, hence to the asynchronous dispatch, may already be wrapped
+        DeferredFlushResponse deferredFlushResponse = WebUtils.getNativeResponse(response, DeferredFlushResponse.class);
+        if (deferredFlushResponse == null) {
+            deferredFlushResponse = new DeferredFlushResponse(response);
+        }
+        RequestTiming.setCurrent(timing);
+        try {
+            filterChain.doFilter(new DispatchTrackingRequest(request, deferredFlushResponse), deferredFlushResponse);
+        } finally {
+            RequestTiming.setCurrent(null);
+            if (!isAsyncStarted(request)) {
+                timing.completed();
+                if (!response.isCommitted()) {
+                    response.setHeader("Server-Timing", timing.toServerTiming());
+                }
+                record(request, timing);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestTiming timing) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String key = request.getMethod() + " " + (pattern != null ? pattern : UNMAPPED);
+        this.patternStatistics.computeIfAbsent(key, k -> new PatternStatistics()).record(timing);
+    }
+
+    @ManagedAttribute(description = "Mean database, controller, render and total times per request pattern, in microseconds")
+    public TabularData getRequestStatistics() throws OpenDataException {
+        TabularDataSupport table = new TabularDataSupport(STATISTICS_TYPE);
+        for (Map.Entry<String, PatternStatistics> entry : this.patternStatistics.entrySet()) {
+            PatternStatistics statistics = entry.getValue();
+            long count = statistics.count.sum();
+            table.put(new CompositeDataSupport(STATISTICS_TYPE.getRowType(), STATISTICS_ITEMS, new Object[]{
+                entry.getKey(), count, meanMicros(statistics.totalNanos, count),
+                meanMicros(statistics.databaseNanos, count), meanMicros(statistics.controllerNanos, count),
+                meanMicros(statistics.renderNanos, count), TimeUnit.NANOSECONDS.toMicros(statistics.maxTotalNanos.get())}));
+        }
+        return table;
+    }
+
+    @ManagedOperation
+    public void reset() {
+        this.patternStatistics.clear();
+    }
+
+    private static long meanMicros(LongAdder nanos, long count) {
+        return count > 0 ? TimeUnit.NANOSECONDS.toMicros(nanos.sum() / count) : 0;
+    }
+
+    private static final class PatternStatistics {
+
+        private final LongAdder count = new LongAdder();
+
+        private final LongAdder totalNanos = new LongAdder();
+
+        private final LongAdder databaseNanos = new LongAdder();
+
+        private final LongAdder controllerNanos = new LongAdder();
+
+        private final LongAdder renderNanos = new LongAdder();
+
+        private final LongAccumulator maxTotalNanos = new LongAccumulator(Math::max, 0);
+
+        private void record(RequestTiming timing) {
+            long total = timing.getTotalNanos();
+            this.count.increment();
+            this.totalNanos.add(total);
+            this.databaseNanos.add(timing.getDatabaseNanos());
+            this.controllerNanos.add(timing.getControllerNanos());
+            this.renderNanos.add(timing.getRenderNanos());
+            this.maxTotalNanos.accumulate(total);
+        }
+    }
+
+    /**
+     * Request handing out {@link RequestDispatcher}s that mark the response as rendering a view while they forward
+     * or include.
+     */
+    private static final class DispatchTrackingRequest extends HttpServletRequestWrapper {
+
+        private final DeferredFlushResponse response;
+
+        private DispatchTrackingRequest(HttpServletRequest request, DeferredFlushResponse response) {
+            super(request);
+            this.response = response;
+        }
+
+        @Override
+        public RequestDispatcher getRequestDispatcher(String path) {
+            RequestDispatcher dispatcher = super.getRequestDispatcher(path);
+            return dispatcher != null ? new DispatchTrackingRequestDispatcher(dispatcher, this.response) : null;
+        }
+    }
+
+    private static final class DispatchTrackingRequestDispatcher implements RequestDispatcher {
+
+        private final RequestDispatcher target;
+
+        private final DeferredFlushResponse response;
+
+        private DispatchTrackingRequestDispatcher(RequestDispatcher target, DeferredFlushResponse response) {
+            this.target = target;
+            this.response = response;
+        }
+
+        @Override
+        public void forward(ServletRequest request, ServletResponse response) throws ServletException, IOException {
+            this.response.dispatchDepth++;
+            try {
+                this.target.forward(request, response);
+            } finally {
+                this.response.dispatchDepth--;
+            }
+        }
+
+        @Override
+        public void include(ServletRequest request, ServletResponse response) throws ServletException, IOException {
+            this.response.dispatchDepth++;
+            try {
+                this.target.include(request, response);
+            } finally {
+                this.response.dispatchDepth--;
+            }
+        }
+    }
+
+    /**
+     * Response ignoring flushes and closes while a forward or include renders a view, including the close ending a
+     * JSP forward, which would commit it before the <code>Server-Timing</code> header is known. The container
+     * flushes and closes the response at the end of the request.
+     */
+    private static final class DeferredFlushResponse extends HttpServletResponseWrapper {
+
+        // forwards and includes in progress; a request is rendered by one thread at a time
+        private int dispatchDepth;
+
+        private ServletOutputStream outputStream;
+
+        private PrintWriter writer;
+
+        private DeferredFlushResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        private boolean isDeferring() {
+            return this.dispatchDepth > 0;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (!isDeferring()) {
+                super.flushBuffer();
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (this.outputStream == null) {
+                this.outputStream = new DeferredFlushOutputStream(super.getOutputStream(), this);
+            }
+            return this.outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (this.writer == null) {
+                this.writer = new PrintWriter(super.getWriter()) {
+                    @Override
+                    public void flush() {
+                        if (!isDeferring()) {
+                            super.flush();
+                        }
+                    }
+
+                    @Override
+                    public void close() {
+                        if (!isDeferring()) {
+                            super.close();
+                        }
+                    }
+                };
+            }
+            return this.writer;
+        }
+    }
+
+    private static final class DeferredFlushOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream target;
+
+        private final DeferredFlushResponse response;
+
+        private DeferredFlushOutputStream(ServletOutputStream target, DeferredFlushResponse response) {
+            this.target = target;
+            this.response = response;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            this.target.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            this.target.write(b, off, len);
+        }
+
+        @Override
+        public boolean isReady() {
+            return this.target.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            this.target.setWriteListener(writeListener);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (!this.response.isDeferring()) {
+                this.target.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!this.response.isDeferring()) {
+                this.target.close();
+            }
+        }
+    }
+
+}
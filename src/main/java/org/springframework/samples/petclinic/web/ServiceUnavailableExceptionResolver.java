@@ -0,0 +1,50 @@
+/*
+ * Copyright 2002-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.web;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.handler.AbstractHandlerExceptionResolver;
+
+/**
+ * Answers <code>503 Service Unavailable</code> with a <code>Retry-After</code> header when a call could not be
+ * submitted to the executor behind <code>AsyncClinicService</code> because all its threads are busy and its queue is
+ * full, so clients back off instead of getting the generic error page.
+ */
+public class ServiceUnavailableExceptionResolver extends AbstractHandlerExceptionResolver {
+
+    private final int retryAfterSeconds;
+
+    public ServiceUnavailableExceptionResolver(int retryAfterSeconds) {
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    protected ModelAndView doResolveException(HttpServletRequest request, HttpServletResponse response,
+                                              Object handler, Exception ex) {
+        if (!(ex instanceof RejectedExecutionException)) {
+            return null;
+        }
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader("Retry-After", String.valueOf(this.retryAfterSeconds));
+        return new ModelAndView("busy");
+    }
+
+}
@@ -25,6 +25,10 @@ import org.springframework.web.bind.annotation.ResponseBody;
 import java.util.Map;
 
 /**
+ * Unlike the owner and visit list pages, the vet pages stay synchronous: {@link ClinicService#findVets()} is served
+ * from the in-memory <code>VetRegistry</code> snapshot, so there is no database round trip to release the servlet
+ * thread for.
+ *
  * @author Juergen Hoeller
  * @author Mark Fisher
  * @author Ken Krebs
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2002-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.web;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.samples.petclinic.service.AsyncClinicService;
+import org.springframework.samples.petclinic.service.ClinicService;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+
+/**
+ * Lists the visits of a pet one page at a time. Kept out of {@link VisitController}, whose model attribute method
+ * loads the pet with its whole visit history for the visit form: this page only reads the pet without its visits,
+ * then one slice of visits.
+ */
+@Controller
+public class VisitListController {
+
+    private static final int VISITS_PAGE_SIZE = 20;
+
+    // highest page number whose offset, plus the extra row read by a slice, still fits in an int
+    private static final int MAX_VISITS_PAGE = Integer.MAX_VALUE / VISITS_PAGE_SIZE - 1;
+
+    private final ClinicService clinicService;
+    private final AsyncClinicService asyncClinicService;
+
+
+    @Autowired
+    public VisitListController(ClinicService clinicService, AsyncClinicService asyncClinicService) {
+        this.clinicService = clinicService;
+        this.asyncClinicService = asyncClinicService;
+    }
+
+    // the visits are loaded asynchronously, one slice at a time, releasing the servlet thread while the database is queried
+    @RequestMapping(value = "/owners/*/pets/{petId}/visits", method = RequestMethod.GET)
+    public CompletableFuture<String> showVisits(@PathVariable int petId, @RequestParam(defaultValue = "0") int page,
+                                                Map<String, Object> model) {
+        model.put("pet", this.clinicService.findPetWithoutVisitsById(petId));
+        int pageNumber = Math.min(Math.max(page, 0), MAX_VISITS_PAGE);
+        return this.asyncClinicService.findVisitsByPetId(petId, PageRequest.of(pageNumber, VISITS_PAGE_SIZE))
+            .thenApply(visits -> {
+                model.put("visits", visits.getContent());
+                model.put("page", pageNumber);
+                model.put("hasPrevious", visits.hasPrevious());
+                model.put("hasNext", visits.hasNext());
+                return "pets/visitList";
+            });
+    }
+
+}
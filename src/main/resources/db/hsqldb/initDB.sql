@@ -5,6 +5,7 @@ DROP TABLE visits IF EXISTS;
 DROP TABLE pets IF EXISTS;
 DROP TABLE types IF EXISTS;
 DROP TABLE owners IF EXISTS;
+DROP SEQUENCE petclinic_seq IF EXISTS;
 
 
 CREATE TABLE vets (
@@ -41,7 +42,7 @@ CREATE TABLE owners (
   city       VARCHAR(80),
   telephone  VARCHAR(20)
 );
-CREATE INDEX owners_last_name ON owners (last_name);
+CREATE INDEX owners_last_name ON owners (last_name, id);
 
 CREATE TABLE pets (
   id         INTEGER IDENTITY PRIMARY KEY,
@@ -62,3 +63,8 @@ CREATE TABLE visits (
 );
 ALTER TABLE visits ADD CONSTRAINT fk_visits_pets FOREIGN KEY (pet_id) REFERENCES pets (id);
 CREATE INDEX visits_pet_id ON visits (pet_id);
+
+-- JPA id generator (see BaseEntity): pooled, the increment must match the allocation size; each value is the
+-- upper end of a block of ids, so the first block is 101-150. The identity columns used by the JDBC profile are
+-- not aligned with it: a database must not be shared between the JDBC and the JPA profiles
+CREATE SEQUENCE petclinic_seq AS INTEGER START WITH 150 INCREMENT BY 50;
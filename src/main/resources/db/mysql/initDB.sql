@@ -63,3 +63,13 @@ CREATE TABLE IF NOT EXISTS visits (
   description VARCHAR(255),
   FOREIGN KEY (pet_id) REFERENCES pets(id)
 ) engine=InnoDB;
+
+-- JPA id generator (see BaseEntity): MySQL has no sequences, so Hibernate emulates petclinic_seq with a
+-- single-row table; the pooled increment must match the allocation size and each value is the upper end of a
+-- block of ids, so the first block is 101-150. The AUTO_INCREMENT columns used by the JDBC profile are not
+-- aligned with it: a database must not be shared between the JDBC and the JPA profiles
+CREATE TABLE IF NOT EXISTS petclinic_seq (
+  next_val BIGINT NOT NULL
+) engine=InnoDB;
+
+INSERT INTO petclinic_seq SELECT 150 FROM DUAL WHERE NOT EXISTS (SELECT * FROM petclinic_seq);
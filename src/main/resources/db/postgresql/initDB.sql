@@ -51,7 +51,7 @@ CREATE TABLE IF NOT EXISTS owners (
   CONSTRAINT pk_owners PRIMARY KEY (id)
 );
 
-CREATE INDEX IF NOT EXISTS idx_owners_last_name ON owners (last_name);
+CREATE INDEX IF NOT EXISTS idx_owners_last_name ON owners (last_name, id);
 
 ALTER SEQUENCE owners_id_seq RESTART WITH 100;
 
@@ -82,3 +82,8 @@ CREATE TABLE IF NOT EXISTS visits (
 );
 
 ALTER SEQUENCE visits_id_seq RESTART WITH 100;
+
+-- JPA id generator (see BaseEntity): pooled, the increment must match the allocation size; each value is the
+-- upper end of a block of ids, so the first block is 101-150. The serial columns used by the JDBC profile are
+-- not aligned with it: a database must not be shared between the JDBC and the JPA profiles
+CREATE SEQUENCE IF NOT EXISTS petclinic_seq START WITH 150 INCREMENT BY 50;
@@ -0,0 +1,14 @@
+<%@ page session="false" trimDirectiveWhitespaces="true" %>
+<%@ taglib prefix="spring" uri="http://www.springframework.org/tags" %>
+<%@ taglib prefix="petclinic" tagdir="/WEB-INF/tags" %>
+
+<petclinic:layout pageName="error">
+
+    <spring:url value="/resources/images/pets.png" var="petsImage"/>
+    <img src="${petsImage}"/>
+
+    <h2>The clinic is busy</h2>
+
+    <p>Too many requests are being processed right now, please try again in a few seconds.</p>
+
+</petclinic:layout>
@@ -6,7 +6,27 @@
 <%@ taglib prefix="petclinic" tagdir="/WEB-INF/tags" %>
 
 <petclinic:layout pageName="owners">
-
+    <jsp:attribute name="customScript">
+        <spring:url value="/owners/autocomplete.json" var="autocompleteUrl"/>
+        <script>
+            $(function () {
+                $("#lastName input").on("input", function () {
+                    var lastName = $(this).val();
+                    if (!lastName) {
+                        return;
+                    }
+                    $.getJSON("${fn:escapeXml(autocompleteUrl)}", {lastName: lastName}, function (owners) {
+                        var options = $("#lastNameSuggestions").empty();
+                        $.each(owners, function (i, owner) {
+                            options.append($("<option>").attr("value", owner.lastName)
+                                .text(owner.firstName + " " + owner.lastName));
+                        });
+                    });
+                });
+            });
+        </script>
+    </jsp:attribute>
+    <jsp:body>
     <h2>Find Owners</h2>
 
     <spring:url value="/owners.html" var="formUrl"/>
@@ -16,7 +36,9 @@
             <div class="control-group" id="lastName">
                 <label class="col-sm-2 control-label">Last name </label>
                 <div class="col-sm-10">
-                    <form:input class="form-control" path="lastName" size="30" maxlength="80"/>
+                    <form:input class="form-control" path="lastName" size="30" maxlength="80" list="lastNameSuggestions"
+                                autocomplete="off"/>
+                    <datalist id="lastNameSuggestions"></datalist>
                     <span class="help-inline"><form:errors path="*"/></span>
                 </div>
             </div>
@@ -31,4 +53,5 @@
 
     <br/>
     <a class="btn btn-default" href='<spring:url value="/owners/new" htmlEscape="true"/>'>Add Owner</a>
+    </jsp:body>
 </petclinic:layout>
@@ -7,6 +7,7 @@
 
 <petclinic:layout pageName="owners">
     <h2>Owners</h2>
+    <c:set var="searchLastName" value="${owner.lastName}"/>
 
     <table id="ownersTable" class="table table-striped">
         <thead>
@@ -37,12 +38,35 @@
                     <c:out value="${owner.telephone}"/>
                 </td>
                 <td>
-                    <c:forEach var="pet" items="${owner.pets}">
-                        <c:out value="${pet.name} "/>
+                    <c:forEach var="petName" items="${owner.petNames}">
+                        <c:out value="${petName} "/>
                     </c:forEach>
                 </td>
             </tr>
         </c:forEach>
         </tbody>
     </table>
+
+    <c:if test="${not empty selections and (hasPrevious or hasNext)}">
+        <ul class="pager">
+            <c:if test="${hasPrevious}">
+                <c:set var="firstOwner" value="${selections[0]}"/>
+                <spring:url value="/owners.html" var="previousUrl">
+                    <spring:param name="lastName" value="${searchLastName}"/>
+                    <spring:param name="beforeName" value="${firstOwner.lastName}"/>
+                    <spring:param name="beforeId" value="${firstOwner.id}"/>
+                </spring:url>
+                <li class="previous"><a href="${fn:escapeXml(previousUrl)}">&larr; Previous</a></li>
+            </c:if>
+            <c:if test="${hasNext}">
+                <c:set var="lastOwner" value="${selections[fn:length(selections) - 1]}"/>
+                <spring:url value="/owners.html" var="nextUrl">
+                    <spring:param name="lastName" value="${searchLastName}"/>
+                    <spring:param name="afterName" value="${lastOwner.lastName}"/>
+                    <spring:param name="afterId" value="${lastOwner.id}"/>
+                </spring:url>
+                <li class="next"><a href="${fn:escapeXml(nextUrl)}">Next &rarr;</a></li>
+            </c:if>
+        </ul>
+    </c:if>
 </petclinic:layout>
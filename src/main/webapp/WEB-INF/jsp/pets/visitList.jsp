@@ -0,0 +1,52 @@
+<%@ page session="false" trimDirectiveWhitespaces="true" %>
+<%@ taglib prefix="spring" uri="http://www.springframework.org/tags" %>
+<%@ taglib prefix="fn" uri="http://java.sun.com/jsp/jstl/functions" %>
+<%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
+<%@ taglib prefix="petclinic" tagdir="/WEB-INF/tags" %>
+
+<petclinic:layout pageName="owners">
+    <h2>Visits of <c:out value="${pet.name}"/></h2>
+
+    <table id="visitsTable" class="table table-striped">
+        <thead>
+        <tr>
+            <th style="width: 150px;">Visit Date</th>
+            <th>Description</th>
+        </tr>
+        </thead>
+        <tbody>
+        <c:forEach items="${visits}" var="pastVisit">
+            <tr>
+                <td><petclinic:localDate date="${pastVisit.date}" pattern="yyyy-MM-dd"/></td>
+                <td><c:out value="${pastVisit.description}"/></td>
+            </tr>
+        </c:forEach>
+        </tbody>
+    </table>
+
+    <c:if test="${hasPrevious or hasNext}">
+        <ul class="pager">
+            <c:if test="${hasPrevious}">
+                <spring:url value="/owners/{ownerId}/pets/{petId}/visits.html" var="previousUrl">
+                    <spring:param name="ownerId" value="${pet.owner.id}"/>
+                    <spring:param name="petId" value="${pet.id}"/>
+                    <spring:param name="page" value="${page - 1}"/>
+                </spring:url>
+                <li class="previous"><a href="${fn:escapeXml(previousUrl)}">&larr; Newer</a></li>
+            </c:if>
+            <c:if test="${hasNext}">
+                <spring:url value="/owners/{ownerId}/pets/{petId}/visits.html" var="nextUrl">
+                    <spring:param name="ownerId" value="${pet.owner.id}"/>
+                    <spring:param name="petId" value="${pet.id}"/>
+                    <spring:param name="page" value="${page + 1}"/>
+                </spring:url>
+                <li class="next"><a href="${fn:escapeXml(nextUrl)}">Older &rarr;</a></li>
+            </c:if>
+        </ul>
+    </c:if>
+
+    <spring:url value="/owners/{ownerId}.html" var="ownerUrl">
+        <spring:param name="ownerId" value="${pet.owner.id}"/>
+    </spring:url>
+    <a href="${fn:escapeXml(ownerUrl)}" class="btn btn-default">Back to Owner</a>
+</petclinic:layout>
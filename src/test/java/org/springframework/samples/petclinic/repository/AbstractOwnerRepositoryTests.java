@@ -0,0 +1,100 @@
+package org.springframework.samples.petclinic.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.samples.petclinic.model.OwnerName;
+import org.springframework.samples.petclinic.model.OwnerSummary;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Keyset paging of {@link OwnerRepository#findPageByLastName} and {@link OwnerRepository#findNamePage}, run against
+ * the HSQLDB sample data by one subclass per persistence profile. Ordered by last name and id, the owners are:
+ * Black (7), Coleman (6), Davis (2), Davis (4), Escobito (8), Estaban (10), Franklin (1), McTavish (5),
+ * Rodriquez (3) and Schroeder (9).
+ */
+public abstract class AbstractOwnerRepositoryTests {
+
+    @Autowired
+    protected OwnerRepository ownerRepository;
+
+    @Test
+    void firstPageForward() {
+        List<OwnerSummary> page = ownerRepository.findPageByLastName("", null, null, false, 3);
+
+        assertThat(page).extracting(OwnerSummary::getId).containsExactly(7, 6, 2);
+    }
+
+    @Test
+    void nextPageStartsAfterTheAnchorAmongOwnersOfTheSameLastName() {
+        List<OwnerSummary> page = ownerRepository.findPageByLastName("", "Davis", 2, false, 3);
+
+        assertThat(page).extracting(OwnerSummary::getId).containsExactly(4, 8, 10);
+    }
+
+    @Test
+    void previousPageEndsBeforeTheAnchorInAscendingOrder() {
+        List<OwnerSummary> page = ownerRepository.findPageByLastName("", "Escobito", 8, true, 3);
+
+        assertThat(page).extracting(OwnerSummary::getId).containsExactly(6, 2, 4);
+    }
+
+    @Test
+    void previousPageEndsBeforeTheAnchorAmongOwnersOfTheSameLastName() {
+        List<OwnerSummary> page = ownerRepository.findPageByLastName("", "Davis", 4, true, 2);
+
+        assertThat(page).extracting(OwnerSummary::getId).containsExactly(6, 2);
+    }
+
+    @Test
+    void backwardWithoutAnchorReadsTheLastPage() {
+        List<OwnerSummary> page = ownerRepository.findPageByLastName("", null, null, true, 3);
+
+        assertThat(page).extracting(OwnerSummary::getId).containsExactly(5, 3, 9);
+    }
+
+    @Test
+    void lastPageMayBeShort() {
+        List<OwnerSummary> page = ownerRepository.findPageByLastName("", "Rodriquez", 3, false, 3);
+
+        assertThat(page).extracting(OwnerSummary::getId).containsExactly(9);
+    }
+
+    @Test
+    void noPageAfterTheLastOwnerNorBeforeTheFirst() {
+        assertThat(ownerRepository.findPageByLastName("", "Schroeder", 9, false, 3)).isEmpty();
+        assertThat(ownerRepository.findPageByLastName("", "Black", 7, true, 3)).isEmpty();
+    }
+
+    @Test
+    void pagesOnlyContainOwnersWhoseLastNameStartsWithThePrefix() {
+        List<OwnerSummary> page = ownerRepository.findPageByLastName("Es", null, null, false, 20);
+
+        assertThat(page).extracting(OwnerSummary::getLastName).containsExactly("Escobito", "Estaban");
+    }
+
+    @Test
+    void summariesListThePetNamesOfTheirOwner() {
+        List<OwnerSummary> page = ownerRepository.findPageByLastName("Coleman", null, null, false, 20);
+
+        assertThat(page).hasSize(1);
+        OwnerSummary coleman = page.get(0);
+        assertThat(coleman.getFirstName()).isEqualTo("Jean");
+        assertThat(coleman.getCity()).isEqualTo("Monona");
+        assertThat(coleman.getPetNames()).containsExactly("Max", "Samantha");
+    }
+
+    @Test
+    void namePagesFollowTheAnchorInNameOrder() {
+        List<OwnerName> firstPage = ownerRepository.findNamePage(null, null, 3);
+        List<OwnerName> nextPage = ownerRepository.findNamePage("Davis", 2, 3);
+
+        assertThat(firstPage).extracting(OwnerName::getId).containsExactly(7, 6, 2);
+        assertThat(firstPage.get(0).getFirstName()).isEqualTo("Jeff");
+        assertThat(firstPage.get(0).getLastName()).isEqualTo("Black");
+        assertThat(nextPage).extracting(OwnerName::getId).containsExactly(4, 8, 10);
+    }
+
+}
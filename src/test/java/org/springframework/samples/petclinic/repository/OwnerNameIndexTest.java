@@ -0,0 +1,167 @@
+package org.springframework.samples.petclinic.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.samples.petclinic.model.Owner;
+import org.springframework.samples.petclinic.model.OwnerName;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+
+@ExtendWith(MockitoExtension.class)
+class OwnerNameIndexTest {
+
+    @Mock
+    private OwnerRepository ownerRepository;
+
+    private OwnerNameIndex newLoadedIndex(OwnerName... names) {
+        given(ownerRepository.findNamePage(null, null, 1000)).willReturn(Arrays.asList(names));
+        OwnerNameIndex index = new OwnerNameIndex(ownerRepository, Runnable::run);
+        index.afterSingletonsInstantiated();
+        return index;
+    }
+
+    private static OwnerName name(int id, String firstName, String lastName) {
+        return new OwnerName(id, firstName, lastName);
+    }
+
+    private static Owner owner(int id, String firstName, String lastName) {
+        Owner owner = new Owner();
+        owner.setId(id);
+        owner.setFirstName(firstName);
+        owner.setLastName(lastName);
+        return owner;
+    }
+
+    @Test
+    void findByLastNameReturnsNullUntilLoaded() {
+        // given
+        OwnerNameIndex index = new OwnerNameIndex(ownerRepository, Runnable::run);
+
+        // when
+        List<OwnerName> names = index.findByLastName("Da", 10);
+
+        // then
+        assertThat(names).isNull();
+        assertThat(index.isReady()).isFalse();
+        then(ownerRepository).shouldHaveZeroInteractions();
+    }
+
+    @Test
+    void findByLastNameMatchesPrefixIgnoringCaseInNameOrder() {
+        // given
+        OwnerNameIndex index = newLoadedIndex(name(4, "Harold", "Davis"), name(2, "Betty", "Davis"),
+            name(6, "Jean", "Coleman"), name(9, "Eve", "davenport"));
+
+        // when
+        List<OwnerName> names = index.findByLastName("dav", 10);
+
+        // then
+        assertThat(names).extracting(OwnerName::getId).containsExactly(9, 2, 4);
+    }
+
+    @Test
+    void findByLastNameOrdersOwnersOfTheSameLastNameByNumericId() {
+        // given
+        OwnerNameIndex index = newLoadedIndex(name(10, "Carlos", "Estaban"), name(2, "Betty", "Estaban"));
+
+        // when
+        List<OwnerName> names = index.findByLastName("Estaban", 10);
+
+        // then
+        assertThat(names).extracting(OwnerName::getId).containsExactly(2, 10);
+    }
+
+    @Test
+    void findByLastNameStopsAtMaxResults() {
+        // given
+        OwnerNameIndex index = newLoadedIndex(name(2, "Betty", "Davis"), name(4, "Harold", "Davis"),
+            name(8, "Maria", "Davison"));
+
+        // when
+        List<OwnerName> names = index.findByLastName("Davis", 2);
+
+        // then
+        assertThat(names).extracting(OwnerName::getId).containsExactly(2, 4);
+    }
+
+    @Test
+    void loadPagesThroughTheOwnersFromTheLastOwnerOfEachPage() {
+        // given
+        List<OwnerName> firstPage = new ArrayList<>();
+        for (int id = 1; id <= 1000; id++) {
+            firstPage.add(name(id, "First", "Name" + id));
+        }
+        given(ownerRepository.findNamePage(null, null, 1000)).willReturn(firstPage);
+        given(ownerRepository.findNamePage("Name1000", 1000, 1000))
+            .willReturn(Collections.singletonList(name(1001, "Last", "Zimmer")));
+        OwnerNameIndex index = new OwnerNameIndex(ownerRepository, Runnable::run);
+
+        // when
+        index.afterSingletonsInstantiated();
+
+        // then
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.getSize()).isEqualTo(1001);
+        assertThat(index.findByLastName("Zim", 10)).extracting(OwnerName::getId).containsExactly(1001);
+    }
+
+    @Test
+    void ownerSavedOutsideATransactionReplacesThePreviousName() {
+        // given
+        OwnerNameIndex index = newLoadedIndex(name(2, "Betty", "Davis"));
+
+        // when
+        index.ownerSaved(owner(2, "Betty", "Franklin"));
+
+        // then
+        assertThat(index.findByLastName("Davis", 10)).isEmpty();
+        assertThat(index.findByLastName("Frank", 10)).extracting(OwnerName::getId).containsExactly(2);
+        assertThat(index.getSize()).isEqualTo(1);
+    }
+
+    @Test
+    void ownerSavedInATransactionIsOnlyIndexedAfterCommit() {
+        // given
+        OwnerNameIndex index = newLoadedIndex(name(2, "Betty", "Davis"));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // when
+            index.ownerSaved(owner(11, "Anna", "Dawson"));
+
+            // then
+            assertThat(index.findByLastName("Daw", 10)).isEmpty();
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCommit();
+            }
+            assertThat(index.findByLastName("Daw", 10)).extracting(OwnerName::getId).containsExactly(11);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void rebuildReloadsTheOwnersFromTheRepository() {
+        // given
+        OwnerNameIndex index = newLoadedIndex(name(2, "Betty", "Davis"));
+        given(ownerRepository.findNamePage(null, null, 1000))
+            .willReturn(Collections.singletonList(name(6, "Jean", "Coleman")));
+
+        // when
+        index.rebuild();
+
+        // then
+        assertThat(index.findByLastName("", 10)).extracting(OwnerName::getId).containsExactly(6);
+    }
+
+}
@@ -0,0 +1,47 @@
+package org.springframework.samples.petclinic.repository.jdbc;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.samples.petclinic.config.RootApplicationContextConfig;
+import org.springframework.samples.petclinic.model.Owner;
+import org.springframework.samples.petclinic.model.Pet;
+import org.springframework.samples.petclinic.repository.AbstractOwnerRepositoryTests;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Batched loading of the JDBC owner repository against the HSQLDB sample data. Keyset paging is covered by
+ * {@link AbstractOwnerRepositoryTests}.
+ */
+@SpringJUnitConfig(RootApplicationContextConfig.class)
+@ActiveProfiles("jdbc")
+class JdbcOwnerRepositoryImplTest extends AbstractOwnerRepositoryTests {
+
+    @Test
+    void findByLastNameLoadsThePetsAndVisitsOfEveryOwner() {
+        Collection<Owner> owners = ownerRepository.findByLastName("");
+
+        assertThat(owners).hasSize(10);
+        assertThat(owners).flatExtracting(Owner::getPets).hasSize(13);
+        Owner coleman = owners.stream().filter(owner -> owner.getId() == 6).findFirst().get();
+        assertThat(coleman.getPets()).extracting(Pet::getName).containsExactly("Max", "Samantha");
+        assertThat(coleman.getPets()).allSatisfy(pet -> {
+            assertThat(pet.getOwner()).isSameAs(coleman);
+            assertThat(pet.getType().getName()).isEqualTo("cat");
+            assertThat(pet.getVisits()).hasSize(2);
+        });
+    }
+
+    @Test
+    void findByLastNameWithOffsetAndLimitLoadsOnePageOfOwners() {
+        List<Owner> owners = ownerRepository.findByLastName("", 2, 3);
+
+        assertThat(owners).extracting(Owner::getId).containsExactly(2, 4, 8);
+        assertThat(owners).allSatisfy(owner -> assertThat(owner.getPets()).isNotEmpty());
+    }
+
+}
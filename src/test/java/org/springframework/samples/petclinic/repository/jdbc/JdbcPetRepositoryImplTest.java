@@ -0,0 +1,46 @@
+package org.springframework.samples.petclinic.repository.jdbc;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.samples.petclinic.config.RootApplicationContextConfig;
+import org.springframework.samples.petclinic.model.Pet;
+import org.springframework.samples.petclinic.model.Visit;
+import org.springframework.samples.petclinic.repository.PetRepository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Positional extractor of the JDBC pet repository, which reads the joined pet, type, owner and visit columns by
+ * index, against the HSQLDB sample data.
+ */
+@SpringJUnitConfig(RootApplicationContextConfig.class)
+@ActiveProfiles("jdbc")
+class JdbcPetRepositoryImplTest {
+
+    @Autowired
+    private PetRepository petRepository;
+
+    @Test
+    void findByIdReadsThePetWithItsTypeOwnerAndVisits() {
+        Pet pet = petRepository.findById(7);
+
+        assertThat(pet.getName()).isEqualTo("Samantha");
+        assertThat(pet.getBirthDate()).hasToString("2012-09-04");
+        assertThat(pet.getType().getName()).isEqualTo("cat");
+        assertThat(pet.getOwner().getId()).isEqualTo(6);
+        assertThat(pet.getOwner().getLastName()).isEqualTo("Coleman");
+        assertThat(pet.getOwner().getTelephone()).isEqualTo("6085552654");
+        assertThat(pet.getVisits()).extracting(Visit::getDescription).containsExactlyInAnyOrder("rabies shot", "spayed");
+    }
+
+    @Test
+    void findByIdReadsAPetWithoutVisits() {
+        Pet pet = petRepository.findById(1);
+
+        assertThat(pet.getName()).isEqualTo("Leo");
+        assertThat(pet.getVisits()).isEmpty();
+    }
+
+}
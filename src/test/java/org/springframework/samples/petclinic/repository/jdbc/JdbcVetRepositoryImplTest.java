@@ -0,0 +1,39 @@
+package org.springframework.samples.petclinic.repository.jdbc;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.samples.petclinic.config.RootApplicationContextConfig;
+import org.springframework.samples.petclinic.model.Specialty;
+import org.springframework.samples.petclinic.model.Vet;
+import org.springframework.samples.petclinic.repository.VetRepository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.Collection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Positional extractor of the JDBC vet repository, which reads the joined vet and specialty columns by index, against
+ * the HSQLDB sample data.
+ */
+@SpringJUnitConfig(RootApplicationContextConfig.class)
+@ActiveProfiles("jdbc")
+class JdbcVetRepositoryImplTest {
+
+    @Autowired
+    private VetRepository vetRepository;
+
+    @Test
+    void findAllReadsTheVetsWithTheirSpecialties() {
+        Collection<Vet> vets = vetRepository.findAll();
+
+        assertThat(vets).hasSize(6);
+        Vet douglas = vets.stream().filter(vet -> vet.getId() == 3).findFirst().get();
+        assertThat(douglas.getLastName()).isEqualTo("Douglas");
+        assertThat(douglas.getSpecialties()).extracting(Specialty::getName).containsExactly("dentistry", "surgery");
+        Vet carter = vets.stream().filter(vet -> vet.getId() == 1).findFirst().get();
+        assertThat(carter.getSpecialties()).isEmpty();
+    }
+
+}
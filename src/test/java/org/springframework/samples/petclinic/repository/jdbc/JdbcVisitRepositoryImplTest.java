@@ -0,0 +1,63 @@
+package org.springframework.samples.petclinic.repository.jdbc;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.samples.petclinic.config.RootApplicationContextConfig;
+import org.springframework.samples.petclinic.model.Pet;
+import org.springframework.samples.petclinic.model.Visit;
+import org.springframework.samples.petclinic.repository.PetRepository;
+import org.springframework.samples.petclinic.repository.VisitRepository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Batched visit inserts of the JDBC visit repository, against the HSQLDB sample data. Each test rolls back.
+ */
+@SpringJUnitConfig(RootApplicationContextConfig.class)
+@ActiveProfiles("jdbc")
+@Transactional
+class JdbcVisitRepositoryImplTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PetRepository petRepository;
+
+    @Autowired
+    private VisitRepository visitRepository;
+
+    @Test
+    void saveVisitsAssignsTheGeneratedIdsAcrossSeveralBatches() {
+        // a batch size of 2 splits the 5 visits into 3 batches
+        JdbcVisitRepositoryImpl repository = new JdbcVisitRepositoryImpl(dataSource, 2);
+        Pet pet = petRepository.findById(1);
+        List<Visit> visits = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Visit visit = new Visit();
+            visit.setPet(pet);
+            visit.setDate(LocalDate.of(2020, 1, i + 1));
+            visit.setDescription("checkup " + i);
+            visits.add(visit);
+        }
+
+        List<Integer> ids = repository.saveVisits(visits);
+
+        assertThat(ids).hasSize(5).doesNotHaveDuplicates().doesNotContainNull();
+        assertThat(visits).extracting(Visit::getId).containsExactlyElementsOf(ids);
+        List<Visit> saved = visitRepository.findByPetId(1);
+        assertThat(saved).hasSize(5);
+        for (Visit visit : saved) {
+            assertThat(visit.getDescription()).isEqualTo("checkup " + ids.indexOf(visit.getId()));
+        }
+    }
+
+}
@@ -0,0 +1,153 @@
+package org.springframework.samples.petclinic.repository.jdbc;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.RowMapperResultSetExtractor;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.samples.petclinic.model.Owner;
+import org.springframework.samples.petclinic.model.PetType;
+import org.springframework.samples.petclinic.model.Specialty;
+import org.springframework.samples.petclinic.model.Vet;
+
+import javax.sql.DataSource;
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetProvider;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH comparison of the positional row mappers of the JDBC repositories with the {@link BeanPropertyRowMapper} they
+ * replaced, on the owners, vets, pet types and specialties of the HSQLDB sample data. The rows are read once into
+ * {@link CachedRowSet}s so that only the mapping is measured.
+ * <p>
+ * Not run by the test suite: start {@link #main} from the test classpath. It adds the GC profiler, as
+ * <code>-prof gc</code> does on the JMH command line, so the bytes allocated per operation are reported next to the
+ * time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RowMapperBenchmark {
+
+    private final JdbcOwnerRowMapper ownerRowMapper = new JdbcOwnerRowMapper();
+
+    private final JdbcVetRowMapper vetRowMapper = new JdbcVetRowMapper();
+
+    private final JdbcPetTypeRowMapper petTypeRowMapper = new JdbcPetTypeRowMapper();
+
+    private final JdbcSpecialtyRowMapper specialtyRowMapper = new JdbcSpecialtyRowMapper();
+
+    private CachedRowSet owners;
+
+    private CachedRowSet vets;
+
+    private CachedRowSet petTypes;
+
+    private CachedRowSet specialties;
+
+    @Setup
+    public void readRows() throws SQLException {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+            .setType(EmbeddedDatabaseType.HSQL)
+            .addScripts("db/hsqldb/initDB.sql", "db/hsqldb/populateDB.sql")
+            .build();
+        try {
+            this.owners = readRows(database, "SELECT id, first_name, last_name, address, city, telephone FROM owners");
+            this.vets = readRows(database, "SELECT id, first_name, last_name FROM vets");
+            this.petTypes = readRows(database, "SELECT id, name FROM types");
+            this.specialties = readRows(database, "SELECT id, name FROM specialties");
+        } finally {
+            database.shutdown();
+        }
+    }
+
+    // the repositories used to create a BeanPropertyRowMapper, and introspect the mapped class, for every query
+
+    @Benchmark
+    public List<Owner> ownersBeanPropertyRowMapper() throws SQLException {
+        return map(this.owners, BeanPropertyRowMapper.newInstance(Owner.class));
+    }
+
+    @Benchmark
+    public List<Owner> ownersPositionalRowMapper() throws SQLException {
+        return map(this.owners, this.ownerRowMapper);
+    }
+
+    @Benchmark
+    public List<Vet> vetsBeanPropertyRowMapper() throws SQLException {
+        return map(this.vets, BeanPropertyRowMapper.newInstance(Vet.class));
+    }
+
+    @Benchmark
+    public List<Vet> vetsPositionalRowMapper() throws SQLException {
+        return map(this.vets, this.vetRowMapper);
+    }
+
+    @Benchmark
+    public List<PetType> petTypesBeanPropertyRowMapper() throws SQLException {
+        return map(this.petTypes, BeanPropertyRowMapper.newInstance(PetType.class));
+    }
+
+    @Benchmark
+    public List<PetType> petTypesPositionalRowMapper() throws SQLException {
+        return map(this.petTypes, this.petTypeRowMapper);
+    }
+
+    @Benchmark
+    public List<Specialty> specialtiesBeanPropertyRowMapper() throws SQLException {
+        return map(this.specialties, BeanPropertyRowMapper.newInstance(Specialty.class));
+    }
+
+    @Benchmark
+    public List<Specialty> specialtiesPositionalRowMapper() throws SQLException {
+        return map(this.specialties, this.specialtyRowMapper);
+    }
+
+    private static CachedRowSet readRows(DataSource dataSource, String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            CachedRowSet rows = RowSetProvider.newFactory().createCachedRowSet();
+            rows.populate(rs);
+            return rows;
+        }
+    }
+
+    private static <T> List<T> map(CachedRowSet rows, RowMapper<T> rowMapper) throws SQLException {
+        rows.beforeFirst();
+        return new RowMapperResultSetExtractor<>(rowMapper).extractData(rows);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(RowMapperBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+
+}
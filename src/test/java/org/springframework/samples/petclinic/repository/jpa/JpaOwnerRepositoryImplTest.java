@@ -0,0 +1,15 @@
+package org.springframework.samples.petclinic.repository.jpa;
+
+import org.springframework.samples.petclinic.config.RootApplicationContextConfig;
+import org.springframework.samples.petclinic.repository.AbstractOwnerRepositoryTests;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+/**
+ * Runs the keyset paging tests against the native query of {@link JpaOwnerQueries#findPageByLastName}.
+ */
+@SpringJUnitConfig(RootApplicationContextConfig.class)
+@ActiveProfiles("jpa")
+class JpaOwnerRepositoryImplTest extends AbstractOwnerRepositoryTests {
+
+}
@@ -0,0 +1,16 @@
+package org.springframework.samples.petclinic.repository.springdatajpa;
+
+import org.springframework.samples.petclinic.config.RootApplicationContextConfig;
+import org.springframework.samples.petclinic.repository.AbstractOwnerRepositoryTests;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+/**
+ * Runs the keyset paging tests against {@link SpringDataOwnerRepositoryImpl}, which shares the native query of the
+ * plain JPA repository.
+ */
+@SpringJUnitConfig(RootApplicationContextConfig.class)
+@ActiveProfiles("spring-data-jpa")
+class SpringDataOwnerRepositoryTest extends AbstractOwnerRepositoryTests {
+
+}
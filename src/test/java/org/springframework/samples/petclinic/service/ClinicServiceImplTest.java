@@ -5,8 +5,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.samples.petclinic.model.Owner;
 import org.springframework.samples.petclinic.model.PetType;
+import org.springframework.samples.petclinic.repository.OwnerRepository;
 import org.springframework.samples.petclinic.repository.PetRepository;
+import org.springframework.samples.petclinic.repository.ReferenceDataRegistry;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -27,6 +30,12 @@ class ClinicServiceImplTest {
     @Mock
     private PetRepository petRepository;
 
+    @Mock
+    private OwnerRepository ownerRepository;
+
+    @Mock
+    private ReferenceDataRegistry referenceDataRegistry;
+
     @InjectMocks
     private ClinicServiceImpl clinicService;
 
@@ -34,13 +43,29 @@ class ClinicServiceImplTest {
     void findPetTypes() {
         // given
         List<PetType> petTypeList = new ArrayList<>();
-        given(petRepository.findPetTypes()).willReturn(petTypeList);
+        given(referenceDataRegistry.getPetTypes()).willReturn(petTypeList);
 
         // when
         Collection<PetType> resultList = clinicService.findPetTypes();
 
         // then
-        then(petRepository).should(times(1)).findPetTypes();
+        then(referenceDataRegistry).should(times(1)).getPetTypes();
+        then(petRepository).shouldHaveZeroInteractions();
         assertThat(resultList).isNotNull();
     }
+
+    @Test
+    void findOwnerByIdLoadsTheVisitsOfThePets() {
+        // given
+        Owner owner = new Owner();
+        given(ownerRepository.findByIdWithVisits(6)).willReturn(owner);
+
+        // when
+        Owner result = clinicService.findOwnerById(6);
+
+        // then
+        then(ownerRepository).should(times(1)).findByIdWithVisits(6);
+        then(ownerRepository).shouldHaveNoMoreInteractions();
+        assertThat(result).isSameAs(owner);
+    }
 }
\ No newline at end of file
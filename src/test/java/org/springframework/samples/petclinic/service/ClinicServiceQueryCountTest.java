@@ -0,0 +1,97 @@
+package org.springframework.samples.petclinic.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.samples.petclinic.config.RootApplicationContextConfig;
+import org.springframework.samples.petclinic.model.Owner;
+import org.springframework.samples.petclinic.model.Pet;
+import org.springframework.samples.petclinic.model.Visit;
+import org.springframework.samples.petclinic.util.QueryCount;
+import org.springframework.samples.petclinic.util.QueryCountExtension;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.Collection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Number of SQL statements issued by the {@link ClinicService} methods with the JDBC repositories: a change making
+ * one of them grow with the number of owners, pets or visits (an N+1 select) fails these tests.
+ */
+@SpringJUnitConfig(RootApplicationContextConfig.class)
+@ActiveProfiles("jdbc")
+@ExtendWith(QueryCountExtension.class)
+class ClinicServiceQueryCountTest {
+
+    @Autowired
+    private ClinicService clinicService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void loadReferenceData(QueryCount queryCount) {
+        // owners cached by an earlier test, or another test class sharing the context, would hide their queries
+        cacheManager.getCache("owners").clear();
+        // pet types, specialties and vets are loaded once, then served from their registries
+        clinicService.findPetTypes();
+        clinicService.findVets();
+        queryCount.reset();
+    }
+
+    @Test
+    void findOwnerByLastNameLoadsPetsAndVisitsOfAllOwnersAtOnce(QueryCount queryCount) {
+        Collection<Owner> owners = clinicService.findOwnerByLastName("Davis");
+
+        assertThat(owners).hasSize(2);
+        assertThat(queryCount.getStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void findOwnerByIdIsServedFromTheCacheOnceLoaded(QueryCount queryCount) {
+        Owner owner = clinicService.findOwnerById(6);
+
+        assertThat(owner.getPets()).hasSize(2);
+        assertThat(queryCount.getStatementCount()).isEqualTo(2);
+
+        queryCount.reset();
+        Owner cached = clinicService.findOwnerById(6);
+
+        assertThat(cached.getPets()).allSatisfy(pet -> assertThat(pet.getVisits()).isNotNull());
+        assertThat(queryCount.getStatementCount()).isZero();
+    }
+
+    @Test
+    void findVisitsByPetIdLoadsOneSlice(QueryCount queryCount) {
+        Slice<Visit> visits = clinicService.findVisitsByPetId(7, PageRequest.of(0, 20));
+
+        assertThat(visits.getContent()).isNotEmpty();
+        assertThat(queryCount.getStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void visitListPageReadsThePetWithoutItsVisits(QueryCount queryCount) {
+        // pet 7 has two visits, which the visit list page reads one slice at a time
+        Pet pet = clinicService.findPetWithoutVisitsById(7);
+
+        assertThat(pet.getName()).isEqualTo("Samantha");
+        assertThat(pet.getOwner().getId()).isEqualTo(6);
+        assertThat(pet.getVisits()).isEmpty();
+        assertThat(queryCount.getStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findPetTypesAndVetsDoNotQueryTheDatabase(QueryCount queryCount) {
+        clinicService.findPetTypes();
+        clinicService.findVets();
+
+        assertThat(queryCount.getStatementCount()).isZero();
+    }
+
+}
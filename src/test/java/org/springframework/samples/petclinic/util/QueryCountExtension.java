@@ -0,0 +1,41 @@
+package org.springframework.samples.petclinic.util;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+
+/**
+ * JUnit extension opening a {@link QueryCount} around each test, injected into the test and <code>@BeforeEach</code>
+ * methods declaring a {@link QueryCount} parameter. Tests can then assert the exact number of SQL statements issued
+ * by the calls they make, e.g. <code>assertThat(queryCount.getStatementCount()).isEqualTo(2)</code>.
+ */
+public class QueryCountExtension implements BeforeEachCallback, AfterEachCallback, ParameterResolver {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(QueryCountExtension.class);
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        context.getStore(NAMESPACE).put(QueryCount.class, QueryCount.open(context.getDisplayName()));
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        QueryCount count = context.getStore(NAMESPACE).remove(QueryCount.class, QueryCount.class);
+        if (count != null) {
+            count.close();
+        }
+    }
+
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return parameterContext.getParameter().getType() == QueryCount.class;
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return extensionContext.getStore(NAMESPACE).get(QueryCount.class, QueryCount.class);
+    }
+
+}
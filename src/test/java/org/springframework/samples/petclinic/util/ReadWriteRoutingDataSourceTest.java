@@ -0,0 +1,97 @@
+package org.springframework.samples.petclinic.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.samples.petclinic.config.RootApplicationContextConfig;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routing of the application DataSource between the two in-memory HSQLDBs of the "read-replica" profile. A specialty
+ * inserted into the primary only tells which database served a transaction.
+ */
+@SpringJUnitConfig(RootApplicationContextConfig.class)
+@ActiveProfiles({"jdbc", "read-replica"})
+class ReadWriteRoutingDataSourceTest {
+
+    private static final String PRIMARY_ONLY = "primary only";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @BeforeEach
+    void insertIntoThePrimaryOnly() {
+        new JdbcTemplate(primaryDataSource).update("INSERT INTO specialties (name) VALUES (?)", PRIMARY_ONLY);
+    }
+
+    @AfterEach
+    void deleteFromThePrimary() {
+        WriteMarker.setCurrent(null);
+        new JdbcTemplate(primaryDataSource).update("DELETE FROM specialties WHERE name = ?", PRIMARY_ONLY);
+    }
+
+    @Test
+    void readOnlyTransactionsReadFromTheReplica() {
+        assertThat(readsFromThePrimary(true)).isFalse();
+    }
+
+    @Test
+    void writeTransactionsGoToThePrimary() {
+        assertThat(readsFromThePrimary(false)).isTrue();
+    }
+
+    @Test
+    void readsFollowingAWriteOfTheSameClientGoToThePrimary() {
+        WriteMarker.setCurrent(new WriteMarker(0));
+        assertThat(readsFromThePrimary(true)).isFalse();
+
+        readsFromThePrimary(false);
+
+        assertThat(readsFromThePrimary(true)).isTrue();
+        // another client has not written anything
+        WriteMarker.setCurrent(new WriteMarker(0));
+        assertThat(readsFromThePrimary(true)).isFalse();
+    }
+
+    @Test
+    @DirtiesContext
+    void readOnlyTransactionsFallBackToThePrimaryWhenTheReplicaFails() {
+        org.apache.tomcat.jdbc.pool.DataSource replicaPool = (org.apache.tomcat.jdbc.pool.DataSource) replicaDataSource;
+        replicaPool.close();
+        // nothing listens on port 1: the pool fails to hand out a connection
+        replicaPool.setUrl("jdbc:hsqldb:hsql://localhost:1/petclinic-replica");
+
+        assertThat(readsFromThePrimary(true)).isTrue();
+    }
+
+    private boolean readsFromThePrimary(boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+        Integer count = transactionTemplate.execute(status -> jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM specialties WHERE name = ?", Integer.class, PRIMARY_ONLY));
+        return count == 1;
+    }
+
+}
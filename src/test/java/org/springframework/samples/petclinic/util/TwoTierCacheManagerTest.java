@@ -0,0 +1,134 @@
+package org.springframework.samples.petclinic.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TwoTierCacheManagerTest {
+
+    private ConcurrentMapCacheManager l1;
+
+    private ConcurrentMapCacheManager l2;
+
+    private TwoTierCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        l1 = new ConcurrentMapCacheManager("owners", "vets");
+        l2 = new ConcurrentMapCacheManager("owners");
+        cacheManager = new TwoTierCacheManager(l1, l2, Collections.singletonList("owners"));
+    }
+
+    @Test
+    void getPromotesAnL2HitToL1() {
+        // given
+        l2.getCache("owners").put(1, "Franklin");
+
+        // when
+        Cache.ValueWrapper value = cacheManager.getCache("owners").get(1);
+
+        // then
+        assertThat(value.get()).isEqualTo("Franklin");
+        assertThat(l1.getCache("owners").get(1)).isNotNull();
+    }
+
+    @Test
+    void putAndEvictUpdateBothTiers() {
+        // given
+        Cache owners = cacheManager.getCache("owners");
+
+        // when
+        owners.put(1, "Franklin");
+
+        // then
+        assertThat(l1.getCache("owners").get(1)).isNotNull();
+        assertThat(l2.getCache("owners").get(1).get()).isEqualTo("Franklin");
+
+        // when
+        owners.evict(1);
+
+        // then
+        assertThat(l1.getCache("owners").get(1)).isNull();
+        assertThat(l2.getCache("owners").get(1)).isNull();
+        assertThat(owners.get(1)).isNull();
+    }
+
+    @Test
+    void copiedCacheHandsOutAFreshCopyOnEveryRead() {
+        // given
+        Cache owners = cacheManager.getCache("owners");
+        List<String> pets = new ArrayList<>(Arrays.asList("Leo"));
+        owners.put(1, pets);
+        pets.add("Basil");
+
+        // when
+        @SuppressWarnings("unchecked")
+        List<String> first = owners.get(1, List.class);
+        first.add("Rosy");
+        @SuppressWarnings("unchecked")
+        List<String> second = owners.get(1, List.class);
+
+        // then
+        assertThat(second).containsExactly("Leo");
+        assertThat(second).isNotSameAs(first);
+    }
+
+    @Test
+    void cacheMissingFromL2IsOnlyHeldInL1() {
+        // given
+        Cache vets = cacheManager.getCache("vets");
+        List<String> specialties = new ArrayList<>(Arrays.asList("radiology"));
+
+        // when
+        vets.put(1, specialties);
+
+        // then
+        assertThat(vets.get(1).get()).isSameAs(specialties);
+        assertThat(l2.getCache("vets")).isNull();
+        assertThat(cacheManager.getCacheNames()).containsExactlyInAnyOrder("owners", "vets");
+    }
+
+    @Test
+    void cacheMissingFromL1IsUnknown() {
+        assertThat(cacheManager.getCache("pets")).isNull();
+    }
+
+    @Test
+    void promotionRacingWithAPutDoesNotLeaveTheOldValueInL1() {
+        // given: the L2 read returns the old value while a concurrent put replaces it
+        Cache[] twoTierCache = new Cache[1];
+        ConcurrentMapCache racingL2Cache = new ConcurrentMapCache("owners") {
+            @Override
+            public ValueWrapper get(Object key) {
+                ValueWrapper oldValue = super.get(key);
+                twoTierCache[0].put(key, "Davis");
+                return oldValue;
+            }
+        };
+        racingL2Cache.put(1, "Franklin");
+        SimpleCacheManager racingL2 = new SimpleCacheManager();
+        racingL2.setCaches(Collections.singletonList(racingL2Cache));
+        racingL2.afterPropertiesSet();
+        TwoTierCacheManager racingCacheManager = new TwoTierCacheManager(l1, racingL2, Collections.emptyList());
+        twoTierCache[0] = racingCacheManager.getCache("owners");
+
+        // when
+        Object value = twoTierCache[0].get(1).get();
+
+        // then
+        assertThat(value).isEqualTo("Franklin");
+        assertThat(l1.getCache("owners").get(1)).isNull();
+        assertThat(racingL2Cache.getNativeCache().get(1)).isEqualTo("Davis");
+    }
+
+}